@@ -0,0 +1,97 @@
+-- List and search timings with and without a large archived share in the hot products table.
+--
+--   psql "$DB_URL" -v ON_ERROR_STOP=1 -f scripts/archive-benchmark.sql
+--
+-- Run against a scratch database that Flyway has migrated. Seeds 1M products tagged with the BENCH- SKU prefix,
+-- 80% of them "discontinued", and times the storefront queries twice: first with the discontinued products still
+-- in products (as when deletes were rare and old rows were kept for reporting), then after moving them to
+-- products_archive with the same statement ProductArchiveRepository uses. The queries mirror the SQL Hibernate
+-- generates for ProductSpecifications. Rows are removed from both tables at the end.
+\timing on
+
+INSERT INTO products (sku, name, description, price_cents, quantity)
+SELECT 'BENCH-' || g,
+       'Bench ' || (ARRAY['lamp', 'chair', 'table', 'shirt', 'mug', 'kettle', 'pillow', 'watch'])[1 + g % 8]
+           || ' ' || g,
+       CASE WHEN g % 5 = 0 THEN NULL ELSE 'discontinued' END,
+       (random() * 100000)::int,
+       CASE WHEN random() < 0.3 THEN 0 ELSE (random() * 50)::int END
+FROM generate_series(1, 1000000) AS g;
+
+VACUUM ANALYZE products;
+
+\echo '== 1M rows in products, 80% discontinued =='
+
+\echo 'List page'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT p.id, p.description, p.name, p.price_cents, p.quantity, p.sku, p.updated_at
+FROM products p
+OFFSET 100000 ROWS FETCH FIRST 20 ROWS ONLY;
+
+\echo 'List count'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(p.id) FROM products p;
+
+\echo 'Name search page'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT p.id, p.description, p.name, p.price_cents, p.quantity, p.sku, p.updated_at
+FROM products p
+WHERE lower(p.name) LIKE '%kettle%'
+OFFSET 0 ROWS FETCH FIRST 20 ROWS ONLY;
+
+\echo 'Name search count'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(p.id) FROM products p WHERE lower(p.name) LIKE '%kettle%';
+
+\echo 'Price range + in stock page'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT p.id, p.description, p.name, p.price_cents, p.quantity, p.sku, p.updated_at
+FROM products p
+WHERE p.price_cents >= 1000 AND p.price_cents <= 5000 AND p.quantity > 0
+OFFSET 0 ROWS FETCH FIRST 20 ROWS ONLY;
+
+\echo '== Archiving the discontinued 80% =='
+WITH moved AS (
+    DELETE FROM products WHERE sku LIKE 'BENCH-%' AND description = 'discontinued'
+    RETURNING id, sku, name, description, price_cents, quantity, updated_at
+)
+INSERT INTO products_archive (id, sku, name, description, price_cents, quantity, updated_at, category_ids)
+SELECT m.id, m.sku, m.name, m.description, m.price_cents, m.quantity, m.updated_at,
+       ARRAY(SELECT pc.category_id FROM product_categories pc WHERE pc.product_id = m.id)
+FROM moved m;
+
+VACUUM ANALYZE products;
+ANALYZE products_archive;
+
+\echo '== 200k live rows in products, 800k in products_archive =='
+
+\echo 'List page'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT p.id, p.description, p.name, p.price_cents, p.quantity, p.sku, p.updated_at
+FROM products p
+OFFSET 100000 ROWS FETCH FIRST 20 ROWS ONLY;
+
+\echo 'List count'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(p.id) FROM products p;
+
+\echo 'Name search page'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT p.id, p.description, p.name, p.price_cents, p.quantity, p.sku, p.updated_at
+FROM products p
+WHERE lower(p.name) LIKE '%kettle%'
+OFFSET 0 ROWS FETCH FIRST 20 ROWS ONLY;
+
+\echo 'Name search count'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(p.id) FROM products p WHERE lower(p.name) LIKE '%kettle%';
+
+\echo 'Price range + in stock page'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT p.id, p.description, p.name, p.price_cents, p.quantity, p.sku, p.updated_at
+FROM products p
+WHERE p.price_cents >= 1000 AND p.price_cents <= 5000 AND p.quantity > 0
+OFFSET 0 ROWS FETCH FIRST 20 ROWS ONLY;
+
+DELETE FROM products WHERE sku LIKE 'BENCH-%';
+DELETE FROM products_archive WHERE sku LIKE 'BENCH-%';
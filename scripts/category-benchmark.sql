@@ -0,0 +1,78 @@
+-- Plans and timings of the storefront filter and facet queries on a 1M-product, 10k-category catalog.
+--
+--   psql "$DB_URL" -v ON_ERROR_STOP=1 -f scripts/category-benchmark.sql
+--
+-- Run against a scratch database that Flyway has migrated (start the app once, or `mvn flyway:migrate`). Seeding
+-- takes a few minutes; rows are tagged with the BENCH- SKU prefix and bench- slug prefix and removed at the end.
+-- Each product gets 1-4 categories drawn from a skewed distribution, so a handful of categories are large (the
+-- "sale" case) and most are small. The queries mirror the SQL Hibernate generates for ProductSpecifications.
+\timing on
+
+INSERT INTO categories (slug, name)
+SELECT 'bench-' || g, 'Bench category ' || g
+FROM generate_series(1, 10000) AS g;
+
+INSERT INTO products (sku, name, description, price_cents, quantity)
+SELECT 'BENCH-' || g,
+       'Bench product ' || g,
+       NULL,
+       (random() * 100000)::int,
+       CASE WHEN random() < 0.3 THEN 0 ELSE (random() * 50)::int END
+FROM generate_series(1, 1000000) AS g;
+
+INSERT INTO product_categories (category_id, product_id)
+SELECT DISTINCT c.id, picks.product_id
+FROM (SELECT p.id AS product_id, 'bench-' || (1 + floor(9999 * power(random(), 3)))::int AS slug
+      FROM products p
+      CROSS JOIN LATERAL generate_series(1, 1 + (p.id % 4)::int)
+      WHERE p.sku LIKE 'BENCH-%') AS picks
+JOIN categories c ON c.slug = picks.slug;
+
+ANALYZE categories;
+ANALYZE products;
+ANALYZE product_categories;
+
+\echo 'Category page (large category)'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT p.id, p.description, p.name, p.price_cents, p.quantity, p.sku, p.updated_at
+FROM products p
+WHERE EXISTS (SELECT pc.category_id FROM product_categories pc JOIN categories c ON c.id = pc.category_id
+              WHERE c.slug IN ('bench-1') AND p.id = pc.product_id)
+OFFSET 0 ROWS FETCH FIRST 20 ROWS ONLY;
+
+\echo 'Category page count (large category)'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(p.id)
+FROM products p
+WHERE EXISTS (SELECT pc.category_id FROM product_categories pc JOIN categories c ON c.id = pc.category_id
+              WHERE c.slug IN ('bench-1') AND p.id = pc.product_id);
+
+\echo 'Category + price range + in stock (small categories)'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT p.id, p.description, p.name, p.price_cents, p.quantity, p.sku, p.updated_at
+FROM products p
+WHERE p.price_cents >= 1000 AND p.price_cents <= 5000 AND p.quantity > 0
+  AND EXISTS (SELECT pc.category_id FROM product_categories pc JOIN categories c ON c.id = pc.category_id
+              WHERE c.slug IN ('bench-5000', 'bench-7500') AND p.id = pc.product_id)
+OFFSET 0 ROWS FETCH FIRST 20 ROWS ONLY;
+
+\echo 'Price range + in stock, no category'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT p.id, p.description, p.name, p.price_cents, p.quantity, p.sku, p.updated_at
+FROM products p
+WHERE p.price_cents >= 1000 AND p.price_cents <= 1200 AND p.quantity > 0
+OFFSET 0 ROWS FETCH FIRST 20 ROWS ONLY;
+
+\echo 'Category facets for price range + in stock (one grouped query)'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT c.slug, c.name, count(p.id)
+FROM products p
+JOIN product_categories pc ON p.id = pc.product_id
+JOIN categories c ON c.id = pc.category_id
+WHERE p.price_cents >= 1000 AND p.price_cents <= 5000 AND p.quantity > 0
+GROUP BY pc.category_id, c.slug, c.name
+ORDER BY 3 DESC, 1
+FETCH FIRST 20 ROWS ONLY;
+
+DELETE FROM products WHERE sku LIKE 'BENCH-%';
+DELETE FROM categories WHERE slug LIKE 'bench-%';
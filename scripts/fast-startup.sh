@@ -0,0 +1,41 @@
+#!/usr/bin/env sh
+# Launches the thin-jar build produced by `mvn -Pfast-startup package`.
+#
+#   fast-startup.sh train   starts the context once without a database and writes the CDS archive (app.jsa)
+#   fast-startup.sh run     starts the application with the CDS archive and the AOT-generated context
+#
+# Extra arguments are passed to the JVM, e.g. `fast-startup.sh run -Dspring.profiles.active=prod,fast-startup`.
+# CDS only archives classes loaded from jars, and the classpath must be identical between training and run, so
+# training records it in app.classpath and both modes launch from the same APP_DIR layout
+# (the thin application jar, lib/, app.classpath, app.jsa).
+set -eu
+
+APP_DIR=${APP_DIR:-$(cd "$(dirname "$0")/../target" && pwd)}
+cd "$APP_DIR"
+MAIN_CLASS=com.cronox.shop.ShopApplication
+
+mode=${1:-run}
+[ $# -gt 0 ] && shift
+
+case "$mode" in
+    train)
+        printf '%s:%s' "${APP_JAR:?APP_JAR must name the thin application jar}" "$(cat classpath.txt)" > app.classpath
+        APP_CLASSPATH=$(cat app.classpath)
+        rm -f app.jsa
+        exec java -XX:ArchiveClassesAtExit=app.jsa \
+            -Dspring.aot.enabled=true \
+            -Dspring.context.exit=onRefresh \
+            -Dspring.profiles.active=cds-training \
+            -cp "$APP_CLASSPATH" "$@" "$MAIN_CLASS"
+        ;;
+    run)
+        APP_CLASSPATH=$(cat app.classpath)
+        exec java -XX:SharedArchiveFile=app.jsa -Xshare:auto \
+            -Dspring.aot.enabled=true \
+            -cp "$APP_CLASSPATH" "$@" "$MAIN_CLASS"
+        ;;
+    *)
+        echo "usage: $0 train|run [jvm-args...]" >&2
+        exit 2
+        ;;
+esac
@@ -0,0 +1,37 @@
+#!/usr/bin/env sh
+# Compares the blocking MVC/JPA read endpoints with the R2DBC-backed /api/v2 endpoints under rising concurrency.
+#
+#   reactive-load-test.sh [base-url] [reactive-base-url]
+#
+# Start the application against a Postgres with a realistic catalog first (see scripts/category-benchmark.sql for a
+# seed). The /api/v2 endpoints are served on their own port (shop.reactive.server.port, 8082 by default). Requires
+# hey (https://github.com/rakyll/hey). CONCURRENCY lists the client counts to try; the interesting ones are those
+# above server.tomcat.threads.max (200 by default), where blocking requests start to queue for a servlet thread.
+# PAGE_SIZE controls the size of the list pages. Prints one JSON line per endpoint and concurrency.
+set -eu
+
+BASE_URL=${1:-http://localhost:8080}
+REACTIVE_BASE_URL=${2:-http://localhost:8082}
+DURATION=${DURATION:-30s}
+CONCURRENCY=${CONCURRENCY:-50 200 800}
+PAGE_SIZE=${PAGE_SIZE:-100}
+QUERY="page=0&size=$PAGE_SIZE&inStock=true"
+
+run() {
+    api=$1
+    url=$2
+    concurrency=$3
+    hey -z "$DURATION" -c "$concurrency" "$url" > /tmp/reactive-load-test.out
+    rps=$(awk '/Requests\/sec:/ { print $2 }' /tmp/reactive-load-test.out)
+    p50=$(awk '/ 50%+ in / { print $3 * 1000 }' /tmp/reactive-load-test.out)
+    p99=$(awk '/ 99%+ in / { print $3 * 1000 }' /tmp/reactive-load-test.out)
+    errors=$(awk '/\[[0-9]+\]/ && !/\[200\]/ { sum += $2 } END { print sum + 0 }' /tmp/reactive-load-test.out)
+    printf '{"api":"%s","concurrency":%s,"requests_per_second":%s,"p50_ms":%s,"p99_ms":%s,"non_200":%s}\n' \
+        "$api" "$concurrency" "${rps:-0}" "${p50:-0}" "${p99:-0}" "$errors"
+}
+
+for concurrency in $CONCURRENCY; do
+    run "mvc-list" "$BASE_URL/api/products?$QUERY" "$concurrency"
+    run "r2dbc-list" "$REACTIVE_BASE_URL/api/v2/products?$QUERY" "$concurrency"
+    run "r2dbc-stream" "$REACTIVE_BASE_URL/api/v2/products/stream?inStock=true&maxPrice=5000" "$concurrency"
+done
@@ -0,0 +1,69 @@
+#!/usr/bin/env sh
+# Measures time-to-first-request and time-to-peak-throughput of one startup mode against a running Postgres.
+#
+#   startup-benchmark.sh baseline   java -jar on the regular fat jar
+#   startup-benchmark.sh fast       AOT + CDS build launched through scripts/fast-startup.sh
+#
+# Build first (`mvn -B -ntp -DskipTests package` for baseline, add -Pfast-startup for fast), export the usual DB_*
+# variables and SPRING_PROFILES_ACTIVE (dev by default). Requires curl and hey (https://github.com/rakyll/hey).
+# Prints one JSON line: time_to_first_request_ms is measured from JVM launch to the first 200 from
+# /api/products, time_to_peak_ms from launch to the first one-second window reaching 95% of the best window seen
+# during LOAD_SECONDS of load.
+set -eu
+
+MODE=${1:?usage: $0 baseline|fast}
+PORT=${PORT:-8080}
+LOAD_SECONDS=${LOAD_SECONDS:-60}
+CONCURRENCY=${CONCURRENCY:-32}
+PROFILES=${SPRING_PROFILES_ACTIVE:-dev}
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+URL="http://localhost:$PORT/api/products?page=0&size=20"
+WORK=$(mktemp -d)
+
+now_ms() {
+    date +%s%3N
+}
+
+start=$(now_ms)
+case "$MODE" in
+    baseline)
+        # With -Pfast-startup the runnable fat jar carries the -exec classifier; it ignores the AOT code unless
+        # spring.aot.enabled is set, so it still represents the baseline.
+        jar="$ROOT/target/shop-backend-0.0.1-SNAPSHOT.jar"
+        [ -f "${jar%.jar}-exec.jar" ] && jar="${jar%.jar}-exec.jar"
+        java -Dspring.profiles.active="$PROFILES" -Dserver.port="$PORT" -jar "$jar" > "$WORK/app.log" 2>&1 &
+        ;;
+    fast)
+        sh "$ROOT/scripts/fast-startup.sh" run -Dspring.profiles.active="$PROFILES,fast-startup" \
+            -Dserver.port="$PORT" > "$WORK/app.log" 2>&1 &
+        ;;
+    *)
+        echo "unknown mode $MODE" >&2
+        exit 2
+        ;;
+esac
+app_pid=$!
+trap 'kill $app_pid 2>/dev/null; rm -rf "$WORK"' EXIT
+
+until [ "$(curl -s -o /dev/null -w '%{http_code}' "$URL" || true)" = "200" ]; do
+    if ! kill -0 "$app_pid" 2>/dev/null; then
+        echo "application exited during startup, see log:" >&2
+        cat "$WORK/app.log" >&2
+        exit 1
+    fi
+    sleep 0.05
+done
+first_request=$(( $(now_ms) - start ))
+load_start=$(( $(now_ms) - start ))
+
+hey -z "${LOAD_SECONDS}s" -c "$CONCURRENCY" -o csv "$URL" > "$WORK/load.csv"
+
+awk -F, -v first="$first_request" -v load_start="$load_start" -v mode="$MODE" '
+    NR > 1 && $7 == 200 { window = int($8); count[window]++; if (window > last) last = window }
+    END {
+        peak = 0
+        for (w = 0; w <= last; w++) if (count[w] > peak) peak = count[w]
+        for (w = 0; w <= last; w++) if (count[w] >= 0.95 * peak) { reached = w; break }
+        printf "{\"mode\":\"%s\",\"time_to_first_request_ms\":%d,\"time_to_peak_ms\":%d,\"peak_rps\":%d}\n",
+            mode, first, load_start + (reached + 1) * 1000, peak
+    }' "$WORK/load.csv"
@@ -2,8 +2,10 @@ package com.cronox.shop;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 
-@SpringBootApplication
+// A ConnectionFactory bean would make Boot skip the JDBC DataSource; ReactiveProductRepository owns its pool.
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 public class ShopApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,4 @@
+package com.cronox.shop.config;
+
+record AccessLogRecord(long timestampMillis, String method, String uri, int status, long durationMicros) {
+}
@@ -0,0 +1,101 @@
+package com.cronox.shop.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+@Component
+public class AccessLogWriter implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestResponseLoggingFilter.class);
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    private final AccessLogRingBuffer<AccessLogRecord> buffer;
+    private final Counter droppedRecords;
+    private volatile boolean running;
+    private Thread worker;
+
+    public AccessLogWriter(MeterRegistry meterRegistry,
+            @Value("${shop.access-log.buffer-capacity:8192}") int bufferCapacity) {
+        this.buffer = new AccessLogRingBuffer<>(bufferCapacity);
+        this.droppedRecords = Counter.builder("shop.access_log.dropped")
+                .description("Access log records discarded because the ring buffer was full")
+                .register(meterRegistry);
+    }
+
+    boolean isLoggable() {
+        return log.isInfoEnabled();
+    }
+
+    void submit(AccessLogRecord record) {
+        if (!running || !buffer.offer(record)) {
+            droppedRecords.increment();
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::drainLoop, "access-log-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (worker != null) {
+            LockSupport.unpark(worker);
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            worker = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void drainLoop() {
+        while (running) {
+            if (!drain()) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        }
+        drain();
+    }
+
+    private boolean drain() {
+        boolean wroteAny = false;
+        AccessLogRecord record;
+        while ((record = buffer.poll()) != null) {
+            write(record);
+            wroteAny = true;
+        }
+        return wroteAny;
+    }
+
+    private static void write(AccessLogRecord record) {
+        try {
+            log.info("ts={} method={} uri={} status={} durationMs={}",
+                    Instant.ofEpochMilli(record.timestampMillis()), record.method(), record.uri(), record.status(),
+                    record.durationMicros() / 1000.0);
+        } catch (RuntimeException ex) {
+            // The writer thread must survive appender failures.
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.cronox.shop.config;
+
+import com.cronox.shop.controller.ReactiveProductController;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+
+@Component
+public class ReactiveServer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveServer.class);
+
+    private final ReactiveProductController reactiveProductController;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int port;
+    private final Duration idleTimeout;
+    private volatile WebServer webServer;
+
+    public ReactiveServer(ReactiveProductController reactiveProductController, ObjectMapper objectMapper,
+            @Value("${shop.reactive.server.enabled:true}") boolean enabled,
+            @Value("${shop.reactive.server.port:8082}") int port,
+            @Value("${shop.reactive.server.idle-timeout:PT60S}") Duration idleTimeout) {
+        this.reactiveProductController = reactiveProductController;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.port = port;
+        this.idleTimeout = idleTimeout;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (!enabled || webServer != null) {
+            return;
+        }
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper)))
+                .build();
+        NettyReactiveWebServerFactory factory = new NettyReactiveWebServerFactory(port);
+        factory.addServerCustomizers(server -> server.idleTimeout(idleTimeout));
+        WebServer server = factory.getWebServer(
+                RouterFunctions.toHttpHandler(reactiveProductController.routes(), strategies));
+        server.start();
+        webServer = server;
+        log.info("Reactive product API listening on port {}", server.getPort());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (webServer != null) {
+            webServer.stop();
+            webServer = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return webServer != null;
+    }
+
+    public int getPort() {
+        WebServer server = webServer;
+        return server != null ? server.getPort() : -1;
+    }
+}
@@ -5,26 +5,56 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 @Component
 public class RequestResponseLoggingFilter extends OncePerRequestFilter {
 
-    private static final Logger log = LoggerFactory.getLogger(RequestResponseLoggingFilter.class);
+    private final AccessLogWriter accessLogWriter;
+    private final boolean enabled;
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+    private final int errorStatusThreshold;
+
+    public RequestResponseLoggingFilter(AccessLogWriter accessLogWriter,
+            @Value("${shop.access-log.enabled:true}") boolean enabled,
+            @Value("${shop.access-log.sample-rate:0.1}") double sampleRate,
+            @Value("${shop.access-log.slow-threshold:PT0.5S}") Duration slowThreshold,
+            @Value("${shop.access-log.error-status-threshold:500}") int errorStatusThreshold) {
+        this.accessLogWriter = accessLogWriter;
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.errorStatusThreshold = errorStatusThreshold;
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
             FilterChain filterChain) throws ServletException, IOException {
-        long start = System.currentTimeMillis();
+        if (!enabled || !accessLogWriter.isLoggable()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        long start = System.nanoTime();
         try {
             filterChain.doFilter(request, response);
         } finally {
-            long duration = System.currentTimeMillis() - start;
-            log.info("{} {} -> {} ({} ms)", request.getMethod(), request.getRequestURI(),
-                    response.getStatus(), duration);
+            long duration = System.nanoTime() - start;
+            int status = response.getStatus();
+            if (shouldLog(status, duration)) {
+                accessLogWriter.submit(new AccessLogRecord(System.currentTimeMillis(), request.getMethod(),
+                        request.getRequestURI(), status, duration / 1000));
+            }
         }
     }
+
+    private boolean shouldLog(int status, long durationNanos) {
+        return status >= errorStatusThreshold
+                || durationNanos >= slowThresholdNanos
+                || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
 }
@@ -0,0 +1,63 @@
+package com.cronox.shop.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+@Component
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmupRunner.class);
+
+    private final Environment environment;
+    private final boolean enabled;
+    private final int iterations;
+
+    public WarmupRunner(Environment environment,
+            @Value("${shop.warmup.enabled:false}") boolean enabled,
+            @Value("${shop.warmup.iterations:200}") int iterations) {
+        this.environment = environment;
+        this.enabled = enabled;
+        this.iterations = iterations;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Integer port = environment.getProperty("local.server.port", Integer.class);
+        if (!enabled || port == null) {
+            return;
+        }
+        RestClient client = RestClient.builder().baseUrl("http://localhost:" + port).build();
+        long start = System.nanoTime();
+        int failures = 0;
+        for (int i = 0; i < iterations; i++) {
+            long id = (i % 50) + 1;
+            failures += get(client, "/api/products?page=0&size=20");
+            failures += get(client, "/api/products?page=0&size=20&name=warmup");
+            failures += get(client, "/api/products/" + id);
+            failures += get(client, "/api/products/by-sku/WARMUP-" + id);
+            failures += get(client, "/api/products/batch?ids=" + id + "," + (id + 1) + "&skus=WARMUP-" + id);
+        }
+        log.info("Warm-up finished: {} iterations in {} ms ({} failed requests)", iterations,
+                (System.nanoTime() - start) / 1_000_000, failures);
+    }
+
+    private static int get(RestClient client, String path) {
+        try {
+            client.get().uri(path)
+                    .retrieve()
+                    .onStatus(HttpStatusCode::is4xxClientError, (request, response) -> {
+                    })
+                    .toBodilessEntity();
+            return 0;
+        } catch (RuntimeException ex) {
+            return 1;
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.cronox.shop.controller;
 
+import com.cronox.shop.dto.ReadinessResponse;
+import com.cronox.shop.service.ReadinessService;
 import java.util.Map;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -8,8 +11,28 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 public class HealthController {
 
+    private final ReadinessService readinessService;
+
+    public HealthController(ReadinessService readinessService) {
+        this.readinessService = readinessService;
+    }
+
     @GetMapping("/health")
     public ResponseEntity<Map<String, String>> health() {
         return ResponseEntity.ok(Map.of("status", "UP"));
     }
+
+    @GetMapping("/health/live")
+    public ResponseEntity<Map<String, String>> liveness() {
+        return readinessService.isLive()
+                ? ResponseEntity.ok(Map.of("status", "UP"))
+                : ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("status", "DOWN"));
+    }
+
+    @GetMapping("/health/ready")
+    public ResponseEntity<ReadinessResponse> readiness() {
+        ReadinessResponse response = readinessService.readiness();
+        HttpStatus status = "UP".equals(response.getStatus()) ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(status).body(response);
+    }
 }
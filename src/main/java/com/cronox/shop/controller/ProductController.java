@@ -1,12 +1,21 @@
 package com.cronox.shop.controller;
 
 import com.cronox.shop.dto.PagedResponse;
+import com.cronox.shop.dto.ProductBatchRequest;
+import com.cronox.shop.dto.ProductBatchResponse;
+import com.cronox.shop.dto.ProductCategoriesRequest;
+import com.cronox.shop.dto.ProductFacetsResponse;
+import com.cronox.shop.dto.ProductFilter;
 import com.cronox.shop.dto.ProductRequest;
 import com.cronox.shop.dto.ProductResponse;
 import com.cronox.shop.dto.QuantityAdjustmentRequest;
+import com.cronox.shop.service.IdempotencyService;
 import com.cronox.shop.service.ProductService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import java.util.List;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -17,6 +26,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -26,19 +36,28 @@ import org.springframework.web.bind.annotation.RestController;
 @Validated
 public class ProductController {
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final ProductService productService;
+    private final IdempotencyService idempotencyService;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, IdempotencyService idempotencyService) {
         this.productService = productService;
+        this.idempotencyService = idempotencyService;
     }
 
     @GetMapping
     public ResponseEntity<PagedResponse<ProductResponse>> listProducts(
             @RequestParam(defaultValue = "0") @Min(0) int page,
             @RequestParam(defaultValue = "20") @Min(1) int size,
-            @RequestParam(required = false) String name,
-            @RequestParam(required = false) String sku) {
-        return ResponseEntity.ok(productService.listProducts(page, size, name, sku));
+            @Valid ProductFilter filter) {
+        return ResponseEntity.ok(productService.listProducts(page, size, filter));
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<ProductFacetsResponse> getFacets(@Valid ProductFilter filter,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(200) int limit) {
+        return ResponseEntity.ok(productService.getFacets(filter, limit));
     }
 
     @GetMapping("/{id}")
@@ -46,10 +65,29 @@ public class ProductController {
         return ResponseEntity.ok(productService.getProduct(id));
     }
 
+    @GetMapping("/by-sku/{sku}")
+    public ResponseEntity<ProductResponse> getProductBySku(@PathVariable String sku) {
+        return ResponseEntity.ok(productService.getProductBySku(sku));
+    }
+
+    @GetMapping("/batch")
+    public ResponseEntity<ProductBatchResponse> getProductsBatch(
+            @RequestParam(required = false) List<Long> ids,
+            @RequestParam(required = false) List<String> skus) {
+        return ResponseEntity.ok(productService.getProductsBatch(ids, skus));
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<ProductBatchResponse> getProductsBatch(@RequestBody ProductBatchRequest request) {
+        return ResponseEntity.ok(productService.getProductsBatch(request.getIds(), request.getSkus()));
+    }
+
     @PostMapping
-    public ResponseEntity<ProductResponse> createProduct(@Valid @RequestBody ProductRequest request) {
-        ProductResponse response = productService.createProduct(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    public ResponseEntity<ProductResponse> createProduct(@Valid @RequestBody ProductRequest request,
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) @Size(max = 255)
+            String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, "POST /api/products", request, ProductResponse.class,
+                () -> ResponseEntity.status(HttpStatus.CREATED).body(productService.createProduct(request)));
     }
 
     @PutMapping("/{id}")
@@ -60,8 +98,23 @@ public class ProductController {
 
     @PatchMapping("/{id}/adjust-quantity")
     public ResponseEntity<ProductResponse> adjustQuantity(@PathVariable Long id,
-            @Valid @RequestBody QuantityAdjustmentRequest request) {
-        return ResponseEntity.ok(productService.adjustQuantity(id, request.getDelta()));
+            @Valid @RequestBody QuantityAdjustmentRequest request,
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) @Size(max = 255)
+            String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, "PATCH /api/products/%d/adjust-quantity".formatted(id),
+                request, ProductResponse.class,
+                () -> ResponseEntity.ok(productService.adjustQuantity(id, request.getDelta())));
+    }
+
+    @PutMapping("/{id}/categories")
+    public ResponseEntity<ProductResponse> assignCategories(@PathVariable Long id,
+            @Valid @RequestBody ProductCategoriesRequest request) {
+        return ResponseEntity.ok(productService.assignCategories(id, request.getSlugs()));
+    }
+
+    @PostMapping("/{id}/restore")
+    public ResponseEntity<ProductResponse> restoreProduct(@PathVariable Long id) {
+        return ResponseEntity.ok(productService.restoreProduct(id));
     }
 
     @DeleteMapping("/{id}")
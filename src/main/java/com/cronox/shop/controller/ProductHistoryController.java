@@ -0,0 +1,36 @@
+package com.cronox.shop.controller;
+
+import com.cronox.shop.dto.HistoryBucket;
+import com.cronox.shop.dto.ProductHistoryPoint;
+import com.cronox.shop.service.ProductHistoryService;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/products/by-sku/{sku}/history")
+public class ProductHistoryController {
+
+    private final ProductHistoryService productHistoryService;
+
+    public ProductHistoryController(ProductHistoryService productHistoryService) {
+        this.productHistoryService = productHistoryService;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ProductHistoryPoint>> getHistory(@PathVariable String sku,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+            @RequestParam(defaultValue = "DAY") HistoryBucket bucket) {
+        OffsetDateTime end = to != null ? to : OffsetDateTime.now(ZoneOffset.UTC);
+        OffsetDateTime start = from != null ? from : end.minusDays(30);
+        return ResponseEntity.ok(productHistoryService.getHistory(sku, start, end, bucket));
+    }
+}
@@ -0,0 +1,134 @@
+package com.cronox.shop.controller;
+
+import com.cronox.shop.dto.ProductFilter;
+import com.cronox.shop.dto.ProductResponse;
+import com.cronox.shop.exception.GlobalExceptionHandler;
+import com.cronox.shop.exception.ProductNotFoundException;
+import com.cronox.shop.exception.TooManyStreamsException;
+import com.cronox.shop.service.ReactiveProductService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.time.Duration;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.BindException;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+
+@Component
+public class ReactiveProductController {
+
+    private final ReactiveProductService reactiveProductService;
+    private final Validator validator;
+    private final GlobalExceptionHandler exceptionHandler;
+    private final Duration streamIdleTimeout;
+
+    public ReactiveProductController(ReactiveProductService reactiveProductService, Validator validator,
+            GlobalExceptionHandler exceptionHandler,
+            @Value("${shop.reactive.stream-idle-timeout:PT30S}") Duration streamIdleTimeout) {
+        this.reactiveProductService = reactiveProductService;
+        this.validator = validator;
+        this.exceptionHandler = exceptionHandler;
+        this.streamIdleTimeout = streamIdleTimeout;
+    }
+
+    public RouterFunction<ServerResponse> routes() {
+        return RouterFunctions.route()
+                .path("/api/v2/products", builder -> builder
+                        .GET("", this::listProducts)
+                        .GET("/stream", this::streamProducts)
+                        .GET("/{id}", this::getProduct))
+                .onError(Throwable.class, this::handleError)
+                .build();
+    }
+
+    Mono<ServerResponse> listProducts(ServerRequest request) {
+        return filter(request)
+                .flatMap(filter -> reactiveProductService.listProducts(intParam(request, "page", 0, 0),
+                        intParam(request, "size", 20, 1), filter))
+                .flatMap(body -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(body));
+    }
+
+    Mono<ServerResponse> streamProducts(ServerRequest request) {
+        return filter(request).flatMap(filter -> ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(reactiveProductService.streamProducts(filter).timeout(streamIdleTimeout),
+                        ProductResponse.class));
+    }
+
+    Mono<ServerResponse> getProduct(ServerRequest request) {
+        return Mono.fromSupplier(() -> pathId(request))
+                .flatMap(reactiveProductService::getProduct)
+                .flatMap(body -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(body));
+    }
+
+    private Mono<ProductFilter> filter(ServerRequest request) {
+        return request.bind(ProductFilter.class).map(filter -> {
+            Set<ConstraintViolation<ProductFilter>> violations = validator.validate(filter);
+            if (!violations.isEmpty()) {
+                throw new ServerWebInputException(violations.stream()
+                        .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                        .collect(Collectors.joining(", ")));
+            }
+            return filter;
+        });
+    }
+
+    private static int intParam(ServerRequest request, String name, int defaultValue, int min) {
+        String raw = request.queryParam(name).orElse(null);
+        if (raw == null) {
+            return defaultValue;
+        }
+        int value;
+        try {
+            value = Integer.parseInt(raw);
+        } catch (NumberFormatException ex) {
+            throw new ServerWebInputException(name + " must be a number");
+        }
+        if (value < min) {
+            throw new ServerWebInputException(name + " must be greater than or equal to " + min);
+        }
+        return value;
+    }
+
+    private static long pathId(ServerRequest request) {
+        try {
+            return Long.parseLong(request.pathVariable("id"));
+        } catch (NumberFormatException ex) {
+            throw new ServerWebInputException("id must be a number");
+        }
+    }
+
+    private Mono<ServerResponse> handleError(Throwable ex, ServerRequest request) {
+        HttpStatus status;
+        String message;
+        if (ex instanceof ProductNotFoundException) {
+            status = HttpStatus.NOT_FOUND;
+            message = ex.getMessage();
+        } else if (ex instanceof TooManyStreamsException) {
+            status = HttpStatus.SERVICE_UNAVAILABLE;
+            message = ex.getMessage();
+        } else if (ex instanceof BindException bindException) {
+            status = HttpStatus.BAD_REQUEST;
+            message = bindException.getFieldErrors().stream()
+                    .map(error -> "%s %s".formatted(error.getField(), error.getDefaultMessage()))
+                    .collect(Collectors.joining(", "));
+        } else if (ex instanceof ServerWebInputException inputException) {
+            status = HttpStatus.BAD_REQUEST;
+            message = inputException.getReason();
+        } else {
+            status = HttpStatus.INTERNAL_SERVER_ERROR;
+            message = "Unexpected error";
+        }
+        return ServerResponse.status(status).contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(exceptionHandler.toApiError(ex, status, message, request.path()));
+    }
+}
@@ -0,0 +1,74 @@
+package com.cronox.shop.controller;
+
+import com.cronox.shop.dto.ProductStockResponse;
+import com.cronox.shop.dto.QuantityAdjustmentRequest;
+import com.cronox.shop.dto.StockAllocationRequest;
+import com.cronox.shop.dto.StockAllocationResponse;
+import com.cronox.shop.dto.StockLevel;
+import com.cronox.shop.service.IdempotencyService;
+import com.cronox.shop.service.StockService;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/products/{id}/stock")
+@Validated
+public class StockController {
+
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    private final StockService stockService;
+    private final IdempotencyService idempotencyService;
+
+    public StockController(StockService stockService, IdempotencyService idempotencyService) {
+        this.stockService = stockService;
+        this.idempotencyService = idempotencyService;
+    }
+
+    @GetMapping
+    public ResponseEntity<ProductStockResponse> getStock(@PathVariable Long id) {
+        return ResponseEntity.ok(stockService.getStock(id));
+    }
+
+    @PatchMapping("/{warehouse}/adjust-quantity")
+    public ResponseEntity<StockLevel> adjustQuantity(@PathVariable Long id, @PathVariable String warehouse,
+            @Valid @RequestBody QuantityAdjustmentRequest request,
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) @Size(max = 255)
+            String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey,
+                "PATCH /api/products/%d/stock/%s/adjust-quantity".formatted(id, warehouse), request,
+                StockLevel.class,
+                () -> ResponseEntity.ok(stockService.adjustQuantity(id, warehouse, request.getDelta())));
+    }
+
+    @PatchMapping("/{warehouse}/adjust-reserved")
+    public ResponseEntity<StockLevel> adjustReserved(@PathVariable Long id, @PathVariable String warehouse,
+            @Valid @RequestBody QuantityAdjustmentRequest request,
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) @Size(max = 255)
+            String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey,
+                "PATCH /api/products/%d/stock/%s/adjust-reserved".formatted(id, warehouse), request,
+                StockLevel.class,
+                () -> ResponseEntity.ok(stockService.adjustReserved(id, warehouse, request.getDelta())));
+    }
+
+    @PostMapping("/allocate")
+    public ResponseEntity<StockAllocationResponse> allocate(@PathVariable Long id,
+            @Valid @RequestBody StockAllocationRequest request,
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) @Size(max = 255)
+            String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, "POST /api/products/%d/stock/allocate".formatted(id),
+                request, StockAllocationResponse.class,
+                () -> ResponseEntity.ok(stockService.allocate(id, request.getQuantity())));
+    }
+}
@@ -0,0 +1,42 @@
+package com.cronox.shop.controller;
+
+import com.cronox.shop.dto.PagedResponse;
+import com.cronox.shop.dto.WarehouseRequest;
+import com.cronox.shop.dto.WarehouseResponse;
+import com.cronox.shop.service.WarehouseService;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/warehouses")
+@Validated
+public class WarehouseController {
+
+    private final WarehouseService warehouseService;
+
+    public WarehouseController(WarehouseService warehouseService) {
+        this.warehouseService = warehouseService;
+    }
+
+    @GetMapping
+    public ResponseEntity<PagedResponse<WarehouseResponse>> listWarehouses(
+            @RequestParam(defaultValue = "0") @Min(0) int page,
+            @RequestParam(defaultValue = "100") @Min(1) @Max(1000) int size) {
+        return ResponseEntity.ok(warehouseService.listWarehouses(page, size));
+    }
+
+    @PostMapping
+    public ResponseEntity<WarehouseResponse> createWarehouse(@Valid @RequestBody WarehouseRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(warehouseService.createWarehouse(request));
+    }
+}
@@ -0,0 +1,41 @@
+package com.cronox.shop.dto;
+
+public class CategoryFacet {
+
+    private String slug;
+    private String name;
+    private long count;
+
+    public CategoryFacet() {
+    }
+
+    public CategoryFacet(String slug, String name, long count) {
+        this.slug = slug;
+        this.name = name;
+        this.count = count;
+    }
+
+    public String getSlug() {
+        return slug;
+    }
+
+    public void setSlug(String slug) {
+        this.slug = slug;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+}
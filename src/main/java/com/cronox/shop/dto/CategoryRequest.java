@@ -0,0 +1,33 @@
+package com.cronox.shop.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+public class CategoryRequest {
+
+    @NotBlank
+    @Size(max = 100)
+    @Pattern(regexp = "[a-z0-9]+(-[a-z0-9]+)*")
+    private String slug;
+
+    @NotBlank
+    @Size(max = 200)
+    private String name;
+
+    public String getSlug() {
+        return slug;
+    }
+
+    public void setSlug(String slug) {
+        this.slug = slug;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
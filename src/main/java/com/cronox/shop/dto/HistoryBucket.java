@@ -0,0 +1,17 @@
+package com.cronox.shop.dto;
+
+public enum HistoryBucket {
+
+    HOUR("hour"),
+    DAY("day");
+
+    private final String truncationUnit;
+
+    HistoryBucket(String truncationUnit) {
+        this.truncationUnit = truncationUnit;
+    }
+
+    public String getTruncationUnit() {
+        return truncationUnit;
+    }
+}
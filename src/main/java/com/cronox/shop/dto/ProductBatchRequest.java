@@ -0,0 +1,27 @@
+package com.cronox.shop.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ProductBatchRequest {
+
+    private List<Long> ids = new ArrayList<>();
+
+    private List<String> skus = new ArrayList<>();
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public List<String> getSkus() {
+        return skus;
+    }
+
+    public void setSkus(List<String> skus) {
+        this.skus = skus;
+    }
+}
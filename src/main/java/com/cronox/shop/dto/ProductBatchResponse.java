@@ -0,0 +1,43 @@
+package com.cronox.shop.dto;
+
+import java.util.List;
+
+public class ProductBatchResponse {
+
+    private List<ProductResponse> content;
+    private List<Long> missingIds;
+    private List<String> missingSkus;
+
+    public ProductBatchResponse() {
+    }
+
+    public ProductBatchResponse(List<ProductResponse> content, List<Long> missingIds, List<String> missingSkus) {
+        this.content = content;
+        this.missingIds = missingIds;
+        this.missingSkus = missingSkus;
+    }
+
+    public List<ProductResponse> getContent() {
+        return content;
+    }
+
+    public void setContent(List<ProductResponse> content) {
+        this.content = content;
+    }
+
+    public List<Long> getMissingIds() {
+        return missingIds;
+    }
+
+    public void setMissingIds(List<Long> missingIds) {
+        this.missingIds = missingIds;
+    }
+
+    public List<String> getMissingSkus() {
+        return missingSkus;
+    }
+
+    public void setMissingSkus(List<String> missingSkus) {
+        this.missingSkus = missingSkus;
+    }
+}
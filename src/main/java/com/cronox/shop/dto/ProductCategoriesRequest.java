@@ -0,0 +1,22 @@
+package com.cronox.shop.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ProductCategoriesRequest {
+
+    @NotNull
+    @Size(max = 100)
+    private List<@NotBlank String> slugs = new ArrayList<>();
+
+    public List<String> getSlugs() {
+        return slugs;
+    }
+
+    public void setSlugs(List<String> slugs) {
+        this.slugs = slugs;
+    }
+}
@@ -0,0 +1,23 @@
+package com.cronox.shop.dto;
+
+import java.util.List;
+
+public class ProductFacetsResponse {
+
+    private List<CategoryFacet> categories;
+
+    public ProductFacetsResponse() {
+    }
+
+    public ProductFacetsResponse(List<CategoryFacet> categories) {
+        this.categories = categories;
+    }
+
+    public List<CategoryFacet> getCategories() {
+        return categories;
+    }
+
+    public void setCategories(List<CategoryFacet> categories) {
+        this.categories = categories;
+    }
+}
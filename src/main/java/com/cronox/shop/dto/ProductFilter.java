@@ -0,0 +1,94 @@
+package com.cronox.shop.dto;
+
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+public class ProductFilter {
+
+    private String name;
+
+    private String sku;
+
+    @Size(max = 50)
+    private List<String> category = new ArrayList<>();
+
+    @PositiveOrZero
+    private Integer minPrice;
+
+    @PositiveOrZero
+    private Integer maxPrice;
+
+    private boolean inStock;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getSku() {
+        return sku;
+    }
+
+    public void setSku(String sku) {
+        this.sku = sku;
+    }
+
+    public List<String> getCategory() {
+        return category;
+    }
+
+    public void setCategory(List<String> category) {
+        this.category = category;
+    }
+
+    public Integer getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(Integer minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public Integer getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(Integer maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    public boolean isInStock() {
+        return inStock;
+    }
+
+    public void setInStock(boolean inStock) {
+        this.inStock = inStock;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof ProductFilter that)) {
+            return false;
+        }
+        return inStock == that.inStock
+                && Objects.equals(name, that.name)
+                && Objects.equals(sku, that.sku)
+                && Objects.equals(category, that.category)
+                && Objects.equals(minPrice, that.minPrice)
+                && Objects.equals(maxPrice, that.maxPrice);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, sku, category, minPrice, maxPrice, inStock);
+    }
+}
@@ -0,0 +1,74 @@
+package com.cronox.shop.dto;
+
+import java.time.OffsetDateTime;
+
+public class ProductHistoryPoint {
+
+    private OffsetDateTime bucketStart;
+    private int minPriceCents;
+    private int maxPriceCents;
+    private int closePriceCents;
+    private int closeQuantity;
+    private long samples;
+
+    public ProductHistoryPoint() {
+    }
+
+    public ProductHistoryPoint(OffsetDateTime bucketStart, int minPriceCents, int maxPriceCents,
+            int closePriceCents, int closeQuantity, long samples) {
+        this.bucketStart = bucketStart;
+        this.minPriceCents = minPriceCents;
+        this.maxPriceCents = maxPriceCents;
+        this.closePriceCents = closePriceCents;
+        this.closeQuantity = closeQuantity;
+        this.samples = samples;
+    }
+
+    public OffsetDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(OffsetDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public int getMinPriceCents() {
+        return minPriceCents;
+    }
+
+    public void setMinPriceCents(int minPriceCents) {
+        this.minPriceCents = minPriceCents;
+    }
+
+    public int getMaxPriceCents() {
+        return maxPriceCents;
+    }
+
+    public void setMaxPriceCents(int maxPriceCents) {
+        this.maxPriceCents = maxPriceCents;
+    }
+
+    public int getClosePriceCents() {
+        return closePriceCents;
+    }
+
+    public void setClosePriceCents(int closePriceCents) {
+        this.closePriceCents = closePriceCents;
+    }
+
+    public int getCloseQuantity() {
+        return closeQuantity;
+    }
+
+    public void setCloseQuantity(int closeQuantity) {
+        this.closeQuantity = closeQuantity;
+    }
+
+    public long getSamples() {
+        return samples;
+    }
+
+    public void setSamples(long samples) {
+        this.samples = samples;
+    }
+}
@@ -1,6 +1,7 @@
 package com.cronox.shop.dto;
 
 import java.time.OffsetDateTime;
+import java.util.List;
 
 public class ProductResponse {
 
@@ -11,6 +12,7 @@ public class ProductResponse {
     private Integer priceCents;
     private Integer quantity;
     private OffsetDateTime updatedAt;
+    private List<String> categories;
 
     public Long getId() {
         return id;
@@ -67,4 +69,12 @@ public class ProductResponse {
     public void setUpdatedAt(OffsetDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public List<String> getCategories() {
+        return categories;
+    }
+
+    public void setCategories(List<String> categories) {
+        this.categories = categories;
+    }
 }
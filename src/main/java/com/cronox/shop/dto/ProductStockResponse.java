@@ -0,0 +1,43 @@
+package com.cronox.shop.dto;
+
+import java.util.List;
+
+public class ProductStockResponse {
+
+    private Long productId;
+    private long available;
+    private List<StockLevel> locations;
+
+    public ProductStockResponse() {
+    }
+
+    public ProductStockResponse(Long productId, long available, List<StockLevel> locations) {
+        this.productId = productId;
+        this.available = available;
+        this.locations = locations;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public long getAvailable() {
+        return available;
+    }
+
+    public void setAvailable(long available) {
+        this.available = available;
+    }
+
+    public List<StockLevel> getLocations() {
+        return locations;
+    }
+
+    public void setLocations(List<StockLevel> locations) {
+        this.locations = locations;
+    }
+}
@@ -0,0 +1,80 @@
+package com.cronox.shop.dto;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+public class ReadinessResponse {
+
+    private String status;
+    private String database;
+    private OffsetDateTime databaseCheckedAt;
+    private Integer poolActive;
+    private Integer poolIdle;
+    private Integer poolTotal;
+    private Integer poolPending;
+    private List<String> reasons;
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getDatabase() {
+        return database;
+    }
+
+    public void setDatabase(String database) {
+        this.database = database;
+    }
+
+    public OffsetDateTime getDatabaseCheckedAt() {
+        return databaseCheckedAt;
+    }
+
+    public void setDatabaseCheckedAt(OffsetDateTime databaseCheckedAt) {
+        this.databaseCheckedAt = databaseCheckedAt;
+    }
+
+    public Integer getPoolActive() {
+        return poolActive;
+    }
+
+    public void setPoolActive(Integer poolActive) {
+        this.poolActive = poolActive;
+    }
+
+    public Integer getPoolIdle() {
+        return poolIdle;
+    }
+
+    public void setPoolIdle(Integer poolIdle) {
+        this.poolIdle = poolIdle;
+    }
+
+    public Integer getPoolTotal() {
+        return poolTotal;
+    }
+
+    public void setPoolTotal(Integer poolTotal) {
+        this.poolTotal = poolTotal;
+    }
+
+    public Integer getPoolPending() {
+        return poolPending;
+    }
+
+    public void setPoolPending(Integer poolPending) {
+        this.poolPending = poolPending;
+    }
+
+    public List<String> getReasons() {
+        return reasons;
+    }
+
+    public void setReasons(List<String> reasons) {
+        this.reasons = reasons;
+    }
+}
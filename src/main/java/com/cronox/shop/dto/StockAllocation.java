@@ -0,0 +1,31 @@
+package com.cronox.shop.dto;
+
+public class StockAllocation {
+
+    private String warehouse;
+    private int quantity;
+
+    public StockAllocation() {
+    }
+
+    public StockAllocation(String warehouse, int quantity) {
+        this.warehouse = warehouse;
+        this.quantity = quantity;
+    }
+
+    public String getWarehouse() {
+        return warehouse;
+    }
+
+    public void setWarehouse(String warehouse) {
+        this.warehouse = warehouse;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+}
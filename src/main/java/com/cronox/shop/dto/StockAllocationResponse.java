@@ -0,0 +1,33 @@
+package com.cronox.shop.dto;
+
+import java.util.List;
+
+public class StockAllocationResponse {
+
+    private Long productId;
+    private List<StockAllocation> allocations;
+
+    public StockAllocationResponse() {
+    }
+
+    public StockAllocationResponse(Long productId, List<StockAllocation> allocations) {
+        this.productId = productId;
+        this.allocations = allocations;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public List<StockAllocation> getAllocations() {
+        return allocations;
+    }
+
+    public void setAllocations(List<StockAllocation> allocations) {
+        this.allocations = allocations;
+    }
+}
@@ -0,0 +1,45 @@
+package com.cronox.shop.dto;
+
+public class StockLevel {
+
+    private String warehouse;
+    private int quantity;
+    private int reserved;
+
+    public StockLevel() {
+    }
+
+    public StockLevel(String warehouse, int quantity, int reserved) {
+        this.warehouse = warehouse;
+        this.quantity = quantity;
+        this.reserved = reserved;
+    }
+
+    public String getWarehouse() {
+        return warehouse;
+    }
+
+    public void setWarehouse(String warehouse) {
+        this.warehouse = warehouse;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public int getReserved() {
+        return reserved;
+    }
+
+    public void setReserved(int reserved) {
+        this.reserved = reserved;
+    }
+
+    public int getAvailable() {
+        return quantity - reserved;
+    }
+}
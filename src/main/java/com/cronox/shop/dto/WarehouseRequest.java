@@ -0,0 +1,45 @@
+package com.cronox.shop.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+public class WarehouseRequest {
+
+    @NotBlank
+    @Size(max = 32)
+    @Pattern(regexp = "[a-z0-9]+(-[a-z0-9]+)*")
+    private String code;
+
+    @NotBlank
+    @Size(max = 200)
+    private String name;
+
+    @Min(0)
+    private int priority;
+
+    public String getCode() {
+        return code;
+    }
+
+    public void setCode(String code) {
+        this.code = code;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public void setPriority(int priority) {
+        this.priority = priority;
+    }
+}
@@ -0,0 +1,24 @@
+package com.cronox.shop.exception;
+
+public abstract class DomainException extends RuntimeException {
+
+    private final String messageFormat;
+    private final Object[] arguments;
+    private String message;
+
+    protected DomainException(String messageFormat, Object... arguments) {
+        super(null, null, false, false);
+        this.messageFormat = messageFormat;
+        this.arguments = arguments;
+    }
+
+    @Override
+    public String getMessage() {
+        String formatted = message;
+        if (formatted == null) {
+            formatted = arguments.length == 0 ? messageFormat : messageFormat.formatted(arguments);
+            message = formatted;
+        }
+        return formatted;
+    }
+}
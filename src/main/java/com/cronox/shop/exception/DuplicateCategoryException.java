@@ -0,0 +1,8 @@
+package com.cronox.shop.exception;
+
+public class DuplicateCategoryException extends DomainException {
+
+    public DuplicateCategoryException(String slug) {
+        super("A category with slug '%s' already exists", slug);
+    }
+}
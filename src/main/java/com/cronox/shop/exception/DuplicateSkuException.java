@@ -1,8 +1,8 @@
 package com.cronox.shop.exception;
 
-public class DuplicateSkuException extends RuntimeException {
+public class DuplicateSkuException extends DomainException {
 
     public DuplicateSkuException(String sku) {
-        super("A product with sku '%s' already exists".formatted(sku));
+        super("A product with sku '%s' already exists", sku);
     }
 }
@@ -0,0 +1,8 @@
+package com.cronox.shop.exception;
+
+public class DuplicateWarehouseException extends DomainException {
+
+    public DuplicateWarehouseException(String code) {
+        super("A warehouse with code '%s' already exists", code);
+    }
+}
@@ -1,10 +1,18 @@
 package com.cronox.shop.exception;
 
 import com.cronox.shop.dto.ApiError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolationException;
+import java.time.Clock;
+import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -17,14 +25,41 @@ import org.springframework.web.context.request.WebRequest;
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
-    @ExceptionHandler(ProductNotFoundException.class)
-    public ResponseEntity<ApiError> handleNotFound(ProductNotFoundException ex, HttpServletRequest request) {
-        return buildResponse(HttpStatus.NOT_FOUND, ex.getMessage(), request.getRequestURI());
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final Map<ErrorKey, Counter> errorCounters = new ConcurrentHashMap<>();
+    private volatile CachedTimestamp lastTimestamp = new CachedTimestamp(Long.MIN_VALUE, null);
+
+    @Autowired
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this(meterRegistry, Clock.systemUTC());
+    }
+
+    GlobalExceptionHandler(MeterRegistry meterRegistry, Clock clock) {
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+    }
+
+    @ExceptionHandler({ProductNotFoundException.class, WarehouseNotFoundException.class})
+    public ResponseEntity<ApiError> handleNotFound(RuntimeException ex, HttpServletRequest request) {
+        return buildResponse(ex, HttpStatus.NOT_FOUND, ex.getMessage(), request.getRequestURI());
     }
 
-    @ExceptionHandler({DuplicateSkuException.class, InsufficientStockException.class})
+    @ExceptionHandler({IdempotencyKeyInProgressException.class, ProductNotArchivedException.class})
+    public ResponseEntity<ApiError> handleConflict(RuntimeException ex, HttpServletRequest request) {
+        return buildResponse(ex, HttpStatus.CONFLICT, ex.getMessage(), request.getRequestURI());
+    }
+
+    @ExceptionHandler({DuplicateSkuException.class, InsufficientStockException.class,
+            IdempotencyKeyMismatchException.class, DuplicateCategoryException.class, UnknownCategoryException.class,
+            DuplicateWarehouseException.class, WarehouseManagedStockException.class})
     public ResponseEntity<ApiError> handleUnprocessable(RuntimeException ex, HttpServletRequest request) {
-        return buildResponse(HttpStatus.UNPROCESSABLE_ENTITY, ex.getMessage(), request.getRequestURI());
+        return buildResponse(ex, HttpStatus.UNPROCESSABLE_ENTITY, ex.getMessage(), request.getRequestURI());
+    }
+
+    @ExceptionHandler({InvalidBatchRequestException.class, InvalidHistoryRangeException.class})
+    public ResponseEntity<ApiError> handleBadRequest(RuntimeException ex, HttpServletRequest request) {
+        return buildResponse(ex, HttpStatus.BAD_REQUEST, ex.getMessage(), request.getRequestURI());
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -33,7 +68,7 @@ public class GlobalExceptionHandler {
         String message = ex.getBindingResult().getFieldErrors().stream()
                 .map(error -> "%s %s".formatted(error.getField(), error.getDefaultMessage()))
                 .collect(Collectors.joining(", "));
-        return buildResponse(HttpStatus.BAD_REQUEST, message, request.getRequestURI());
+        return buildResponse(ex, HttpStatus.BAD_REQUEST, message, request.getRequestURI());
     }
 
     @ExceptionHandler(ConstraintViolationException.class)
@@ -42,29 +77,55 @@ public class GlobalExceptionHandler {
         String message = ex.getConstraintViolations().stream()
                 .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
                 .collect(Collectors.joining(", "));
-        return buildResponse(HttpStatus.BAD_REQUEST, message, request.getRequestURI());
+        return buildResponse(ex, HttpStatus.BAD_REQUEST, message, request.getRequestURI());
     }
 
     @ExceptionHandler(HttpMessageNotReadableException.class)
     public ResponseEntity<ApiError> handleMessageNotReadable(HttpMessageNotReadableException ex,
             HttpServletRequest request) {
-        return buildResponse(HttpStatus.BAD_REQUEST, "Malformed JSON request", request.getRequestURI());
+        return buildResponse(ex, HttpStatus.BAD_REQUEST, "Malformed JSON request", request.getRequestURI());
     }
 
     @ExceptionHandler(DataIntegrityViolationException.class)
     public ResponseEntity<ApiError> handleDataIntegrity(DataIntegrityViolationException ex,
             HttpServletRequest request) {
-        return buildResponse(HttpStatus.UNPROCESSABLE_ENTITY, "Data integrity violation", request.getRequestURI());
+        return buildResponse(ex, HttpStatus.UNPROCESSABLE_ENTITY, "Data integrity violation",
+                request.getRequestURI());
     }
 
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiError> handleGeneric(Exception ex, WebRequest request) {
         String path = request.getDescription(false).replace("uri=", "");
-        return buildResponse(HttpStatus.INTERNAL_SERVER_ERROR, "Unexpected error", path);
+        return buildResponse(ex, HttpStatus.INTERNAL_SERVER_ERROR, "Unexpected error", path);
+    }
+
+    public ApiError toApiError(Throwable ex, HttpStatus status, String message, String path) {
+        errorCounters.computeIfAbsent(new ErrorKey(ex.getClass(), status), key -> Counter.builder("shop.errors")
+                .description("Error responses by exception type")
+                .tag("exception", key.type().getSimpleName())
+                .tag("status", String.valueOf(key.status().value()))
+                .register(meterRegistry)).increment();
+        return new ApiError(now(), status.value(), status.getReasonPhrase(), message, path);
+    }
+
+    private ResponseEntity<ApiError> buildResponse(Exception ex, HttpStatus status, String message, String path) {
+        return ResponseEntity.status(status).body(toApiError(ex, status, message, path));
+    }
+
+    private OffsetDateTime now() {
+        long millis = clock.millis();
+        CachedTimestamp cached = lastTimestamp;
+        if (cached.epochMillis() != millis) {
+            OffsetDateTime timestamp = OffsetDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+            cached = new CachedTimestamp(millis, timestamp);
+            lastTimestamp = cached;
+        }
+        return cached.value();
+    }
+
+    private record ErrorKey(Class<?> type, HttpStatus status) {
     }
 
-    private ResponseEntity<ApiError> buildResponse(HttpStatus status, String message, String path) {
-        ApiError body = new ApiError(OffsetDateTime.now(), status.value(), status.getReasonPhrase(), message, path);
-        return ResponseEntity.status(status).body(body);
+    private record CachedTimestamp(long epochMillis, OffsetDateTime value) {
     }
 }
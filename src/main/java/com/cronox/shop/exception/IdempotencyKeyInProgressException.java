@@ -0,0 +1,8 @@
+package com.cronox.shop.exception;
+
+public class IdempotencyKeyInProgressException extends DomainException {
+
+    public IdempotencyKeyInProgressException() {
+        super("A request with this Idempotency-Key is still being processed");
+    }
+}
@@ -0,0 +1,8 @@
+package com.cronox.shop.exception;
+
+public class IdempotencyKeyMismatchException extends DomainException {
+
+    public IdempotencyKeyMismatchException() {
+        super("Idempotency-Key was already used with a different request");
+    }
+}
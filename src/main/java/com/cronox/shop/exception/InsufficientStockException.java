@@ -1,8 +1,16 @@
 package com.cronox.shop.exception;
 
-public class InsufficientStockException extends RuntimeException {
+public class InsufficientStockException extends DomainException {
 
     public InsufficientStockException(Long id) {
-        super("Product %d would have negative stock".formatted(id));
+        super("Product %d would have negative stock", id);
+    }
+
+    public InsufficientStockException(Long id, String warehouse) {
+        super("Product %d does not have enough unreserved stock in warehouse '%s'", id, warehouse);
+    }
+
+    public InsufficientStockException(Long id, long available, int requested) {
+        super("Product %d has %d units available, %d requested", id, available, requested);
     }
 }
@@ -0,0 +1,8 @@
+package com.cronox.shop.exception;
+
+public class InvalidBatchRequestException extends DomainException {
+
+    public InvalidBatchRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.cronox.shop.exception;
+
+public class InvalidHistoryRangeException extends DomainException {
+
+    public InvalidHistoryRangeException(String message) {
+        super(message);
+    }
+}
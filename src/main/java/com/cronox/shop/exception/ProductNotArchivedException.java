@@ -0,0 +1,8 @@
+package com.cronox.shop.exception;
+
+public class ProductNotArchivedException extends DomainException {
+
+    public ProductNotArchivedException(Long id) {
+        super("Product %d is not archived", id);
+    }
+}
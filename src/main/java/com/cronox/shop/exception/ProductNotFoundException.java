@@ -1,8 +1,12 @@
 package com.cronox.shop.exception;
 
-public class ProductNotFoundException extends RuntimeException {
+public class ProductNotFoundException extends DomainException {
 
     public ProductNotFoundException(Long id) {
-        super("Product %d not found".formatted(id));
+        super("Product %d not found", id);
+    }
+
+    public ProductNotFoundException(String sku) {
+        super("Product with sku '%s' not found", sku);
     }
 }
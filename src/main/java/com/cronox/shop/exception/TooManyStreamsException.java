@@ -0,0 +1,8 @@
+package com.cronox.shop.exception;
+
+public class TooManyStreamsException extends DomainException {
+
+    public TooManyStreamsException(int maxConcurrentStreams) {
+        super("%d product streams are already open, try again later", maxConcurrentStreams);
+    }
+}
@@ -0,0 +1,10 @@
+package com.cronox.shop.exception;
+
+import java.util.Collection;
+
+public class UnknownCategoryException extends DomainException {
+
+    public UnknownCategoryException(Collection<String> slugs) {
+        super("Unknown categories: %s", String.join(", ", slugs));
+    }
+}
@@ -0,0 +1,8 @@
+package com.cronox.shop.exception;
+
+public class WarehouseManagedStockException extends DomainException {
+
+    public WarehouseManagedStockException(Long id) {
+        super("Stock of product %d is kept per warehouse; adjust it through /api/products/%d/stock", id, id);
+    }
+}
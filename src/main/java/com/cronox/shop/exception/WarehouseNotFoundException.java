@@ -0,0 +1,8 @@
+package com.cronox.shop.exception;
+
+public class WarehouseNotFoundException extends DomainException {
+
+    public WarehouseNotFoundException(String code) {
+        super("Warehouse '%s' not found", code);
+    }
+}
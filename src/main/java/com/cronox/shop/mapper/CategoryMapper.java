@@ -0,0 +1,25 @@
+package com.cronox.shop.mapper;
+
+import com.cronox.shop.dto.CategoryRequest;
+import com.cronox.shop.dto.CategoryResponse;
+import com.cronox.shop.entity.Category;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CategoryMapper {
+
+    public Category toEntity(CategoryRequest request) {
+        Category category = new Category();
+        category.setSlug(request.getSlug());
+        category.setName(request.getName());
+        return category;
+    }
+
+    public CategoryResponse toResponse(Category category) {
+        CategoryResponse response = new CategoryResponse();
+        response.setId(category.getId());
+        response.setSlug(category.getSlug());
+        response.setName(category.getName());
+        return response;
+    }
+}
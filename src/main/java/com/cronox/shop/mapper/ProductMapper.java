@@ -2,6 +2,7 @@ package com.cronox.shop.mapper;
 
 import com.cronox.shop.dto.ProductRequest;
 import com.cronox.shop.dto.ProductResponse;
+import com.cronox.shop.entity.Category;
 import com.cronox.shop.entity.Product;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -37,6 +38,7 @@ public class ProductMapper {
         response.setPriceCents(product.getPriceCents());
         response.setQuantity(product.getQuantity());
         response.setUpdatedAt(product.getUpdatedAt());
+        response.setCategories(product.getCategories().stream().map(Category::getSlug).sorted().toList());
         return response;
     }
 
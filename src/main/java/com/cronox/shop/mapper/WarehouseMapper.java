@@ -0,0 +1,27 @@
+package com.cronox.shop.mapper;
+
+import com.cronox.shop.dto.WarehouseRequest;
+import com.cronox.shop.dto.WarehouseResponse;
+import com.cronox.shop.entity.Warehouse;
+import org.springframework.stereotype.Component;
+
+@Component
+public class WarehouseMapper {
+
+    public Warehouse toEntity(WarehouseRequest request) {
+        Warehouse warehouse = new Warehouse();
+        warehouse.setCode(request.getCode());
+        warehouse.setName(request.getName());
+        warehouse.setPriority(request.getPriority());
+        return warehouse;
+    }
+
+    public WarehouseResponse toResponse(Warehouse warehouse) {
+        WarehouseResponse response = new WarehouseResponse();
+        response.setId(warehouse.getId());
+        response.setCode(warehouse.getCode());
+        response.setName(warehouse.getName());
+        response.setPriority(warehouse.getPriority());
+        return response;
+    }
+}
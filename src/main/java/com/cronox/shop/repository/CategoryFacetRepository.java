@@ -0,0 +1,11 @@
+package com.cronox.shop.repository;
+
+import com.cronox.shop.dto.CategoryFacet;
+import com.cronox.shop.entity.Product;
+import java.util.List;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface CategoryFacetRepository {
+
+    List<CategoryFacet> countByCategory(Specification<Product> spec, int limit);
+}
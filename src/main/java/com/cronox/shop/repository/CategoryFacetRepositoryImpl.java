@@ -0,0 +1,46 @@
+package com.cronox.shop.repository;
+
+import com.cronox.shop.dto.CategoryFacet;
+import com.cronox.shop.entity.Category;
+import com.cronox.shop.entity.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.List;
+import org.springframework.data.jpa.domain.Specification;
+
+class CategoryFacetRepositoryImpl implements CategoryFacetRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<CategoryFacet> countByCategory(Specification<Product> spec, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> product = query.from(Product.class);
+        Join<Product, Category> category = product.join("categories");
+        Expression<Long> count = cb.count(product);
+
+        query.multiselect(category.get("slug"), category.get("name"), count)
+                .groupBy(category.get("id"), category.get("slug"), category.get("name"))
+                .orderBy(cb.desc(count), cb.asc(category.get("slug")));
+        Predicate predicate = spec.toPredicate(product, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultStream()
+                .map(row -> new CategoryFacet(row.get(0, String.class), row.get(1, String.class),
+                        row.get(2, Long.class)))
+                .toList();
+    }
+}
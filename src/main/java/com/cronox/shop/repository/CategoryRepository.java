@@ -0,0 +1,13 @@
+package com.cronox.shop.repository;
+
+import com.cronox.shop.entity.Category;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface CategoryRepository extends JpaRepository<Category, Long> {
+
+    List<Category> findBySlugIn(Collection<String> slugs);
+
+    boolean existsBySlug(String slug);
+}
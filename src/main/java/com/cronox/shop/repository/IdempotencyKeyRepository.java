@@ -0,0 +1,89 @@
+package com.cronox.shop.repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class IdempotencyKeyRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO idempotency_keys (key_hash, request_hash, locked_until, expires_at)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT (key_hash) DO NOTHING
+            """;
+
+    private static final String CLAIM_STALE_SQL = """
+            UPDATE idempotency_keys
+            SET request_hash = ?, response_status = NULL, response_body = NULL, locked_until = ?, expires_at = ?
+            WHERE key_hash = (SELECT key_hash FROM idempotency_keys
+                              WHERE key_hash = ?
+                                AND (expires_at <= NOW() OR (response_status IS NULL AND locked_until < NOW()))
+                              FOR UPDATE SKIP LOCKED)
+            """;
+
+    private static final String LOCK_CLAIM_SQL = """
+            SELECT key_hash FROM idempotency_keys
+            WHERE key_hash = ? AND locked_until = ? AND response_status IS NULL
+            FOR UPDATE
+            """;
+
+    private static final String SELECT_SQL = """
+            SELECT request_hash, response_status, response_body, locked_until, expires_at
+            FROM idempotency_keys
+            WHERE key_hash = ? AND expires_at > NOW()
+            """;
+
+    private static final String COMPLETE_SQL = """
+            UPDATE idempotency_keys
+            SET response_status = ?, response_body = ?
+            WHERE key_hash = ?
+            """;
+
+    private static final String RELEASE_SQL =
+            "DELETE FROM idempotency_keys WHERE key_hash = ? AND locked_until = ? AND response_status IS NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdempotencyKeyRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean tryClaim(byte[] keyHash, byte[] requestHash, OffsetDateTime lockedUntil,
+            OffsetDateTime expiresAt) {
+        return jdbcTemplate.update(INSERT_SQL, keyHash, requestHash, lockedUntil, expiresAt) == 1;
+    }
+
+    public boolean tryClaimStale(byte[] keyHash, byte[] requestHash, OffsetDateTime lockedUntil,
+            OffsetDateTime expiresAt) {
+        return jdbcTemplate.update(CLAIM_STALE_SQL, requestHash, lockedUntil, expiresAt, keyHash) == 1;
+    }
+
+    public boolean lockClaim(byte[] keyHash, OffsetDateTime lockedUntil) {
+        return !jdbcTemplate.queryForList(LOCK_CLAIM_SQL, byte[].class, keyHash, lockedUntil).isEmpty();
+    }
+
+    public Optional<IdempotencyRecord> find(byte[] keyHash) {
+        List<IdempotencyRecord> records = jdbcTemplate.query(SELECT_SQL, (rs, rowNum) -> new IdempotencyRecord(
+                rs.getBytes("request_hash"),
+                rs.getObject("response_status", Integer.class),
+                rs.getString("response_body"),
+                rs.getObject("locked_until", OffsetDateTime.class),
+                rs.getObject("expires_at", OffsetDateTime.class)), keyHash);
+        return records.stream().findFirst();
+    }
+
+    public void complete(byte[] keyHash, int responseStatus, String responseBody) {
+        jdbcTemplate.update(COMPLETE_SQL, responseStatus, responseBody, keyHash);
+    }
+
+    public void release(byte[] keyHash, OffsetDateTime lockedUntil) {
+        jdbcTemplate.update(RELEASE_SQL, keyHash, lockedUntil);
+    }
+
+    public int deleteExpired() {
+        return jdbcTemplate.update("DELETE FROM idempotency_keys WHERE expires_at <= NOW()");
+    }
+}
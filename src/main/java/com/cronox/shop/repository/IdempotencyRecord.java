@@ -0,0 +1,11 @@
+package com.cronox.shop.repository;
+
+import java.time.OffsetDateTime;
+
+public record IdempotencyRecord(byte[] requestHash, Integer responseStatus, String responseBody,
+        OffsetDateTime lockedUntil, OffsetDateTime expiresAt) {
+
+    public boolean isCompleted() {
+        return responseStatus != null;
+    }
+}
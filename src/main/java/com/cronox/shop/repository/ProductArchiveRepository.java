@@ -0,0 +1,76 @@
+package com.cronox.shop.repository;
+
+import java.util.List;
+import java.util.Optional;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class ProductArchiveRepository {
+
+    private static final String ARCHIVE_SQL = """
+            WITH moved AS (
+                DELETE FROM products WHERE id = ?
+                RETURNING id, sku, name, description, price_cents, quantity, updated_at
+            ), unjournaled AS (
+                DELETE FROM product_stock_deltas
+                WHERE id IN (SELECT d.id FROM product_stock_deltas d JOIN moved m ON m.id = d.product_id
+                             FOR UPDATE OF d SKIP LOCKED)
+            )
+            INSERT INTO products_archive (id, sku, name, description, price_cents, quantity, updated_at,
+                                          category_ids, stock)
+            SELECT m.id, m.sku, m.name, m.description, m.price_cents, m.quantity, m.updated_at,
+                   ARRAY(SELECT pc.category_id FROM product_categories pc WHERE pc.product_id = m.id),
+                   COALESCE((SELECT jsonb_agg(jsonb_build_object('warehouse_id', s.warehouse_id,
+                                                                 'quantity', s.quantity, 'reserved', s.reserved))
+                             FROM product_stock s WHERE s.product_id = m.id), '[]')
+            FROM moved m
+            """;
+
+    private static final String RESTORE_SQL = """
+            WITH restored AS (
+                DELETE FROM products_archive a
+                WHERE a.id = ? AND NOT EXISTS (SELECT 1 FROM products p WHERE p.sku = a.sku)
+                RETURNING id, sku, name, description, price_cents, quantity, category_ids, stock
+            ), links AS (
+                INSERT INTO product_categories (category_id, product_id)
+                SELECT c.id, r.id FROM restored r JOIN categories c ON c.id = ANY(r.category_ids)
+            ), locations AS (
+                INSERT INTO product_stock (product_id, warehouse_id, quantity, reserved)
+                SELECT r.id, w.id, l.quantity, l.reserved
+                FROM restored r
+                CROSS JOIN LATERAL jsonb_to_recordset(r.stock) AS l (warehouse_id BIGINT, quantity INTEGER,
+                                                                     reserved INTEGER)
+                JOIN warehouses w ON w.id = l.warehouse_id
+                RETURNING product_id, quantity - reserved AS available
+            ), availability AS (
+                INSERT INTO product_availability (product_id, available)
+                SELECT product_id, SUM(available) FROM locations GROUP BY product_id
+            ), unjournaled AS (
+                DELETE FROM product_stock_deltas WHERE product_id IN (SELECT id FROM restored)
+            )
+            INSERT INTO products (id, sku, name, description, price_cents, quantity, updated_at)
+            SELECT id, sku, name, description, price_cents, quantity, NOW()
+            FROM restored
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductArchiveRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean archive(long id) {
+        return jdbcTemplate.update(ARCHIVE_SQL, id) == 1;
+    }
+
+    public boolean restore(long id) {
+        return jdbcTemplate.update(RESTORE_SQL, id) == 1;
+    }
+
+    public Optional<String> findSku(long id) {
+        List<String> skus = jdbcTemplate.queryForList("SELECT sku FROM products_archive WHERE id = ?", String.class,
+                id);
+        return skus.stream().findFirst();
+    }
+}
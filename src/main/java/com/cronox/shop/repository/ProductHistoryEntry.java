@@ -0,0 +1,7 @@
+package com.cronox.shop.repository;
+
+import java.time.OffsetDateTime;
+
+public record ProductHistoryEntry(long productId, String sku, int priceCents, int quantity,
+        OffsetDateTime recordedAt) {
+}
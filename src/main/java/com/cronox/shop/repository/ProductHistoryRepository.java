@@ -0,0 +1,95 @@
+package com.cronox.shop.repository;
+
+import com.cronox.shop.dto.HistoryBucket;
+import com.cronox.shop.dto.ProductHistoryPoint;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class ProductHistoryRepository {
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("product_history_(\\d{4})_(\\d{2})");
+
+    private static final String INSERT_SQL = """
+            INSERT INTO product_history (product_id, sku, price_cents, quantity, recorded_at)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+
+    private static final String BUCKETS_SQL = """
+            SELECT date_trunc(?, recorded_at AT TIME ZONE 'UTC') AS bucket_start,
+                   MIN(price_cents) AS min_price_cents,
+                   MAX(price_cents) AS max_price_cents,
+                   (ARRAY_AGG(price_cents ORDER BY recorded_at DESC))[1] AS close_price_cents,
+                   (ARRAY_AGG(quantity ORDER BY recorded_at DESC))[1] AS close_quantity,
+                   COUNT(*) AS samples
+            FROM product_history
+            WHERE sku = ? AND recorded_at >= ? AND recorded_at < ?
+            GROUP BY bucket_start
+            ORDER BY bucket_start
+            """;
+
+    private static final String PARTITIONS_SQL = """
+            SELECT child.relname
+            FROM pg_inherits
+            JOIN pg_class parent ON parent.oid = pg_inherits.inhparent
+            JOIN pg_class child ON child.oid = pg_inherits.inhrelid
+            WHERE parent.relname = 'product_history'
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductHistoryRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insertBatch(List<ProductHistoryEntry> entries) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setLong(1, entry.productId());
+            ps.setString(2, entry.sku());
+            ps.setInt(3, entry.priceCents());
+            ps.setInt(4, entry.quantity());
+            ps.setObject(5, entry.recordedAt());
+        });
+    }
+
+    public List<ProductHistoryPoint> findBuckets(String sku, OffsetDateTime from, OffsetDateTime to,
+            HistoryBucket bucket) {
+        return jdbcTemplate.query(BUCKETS_SQL, (rs, rowNum) -> new ProductHistoryPoint(
+                rs.getObject("bucket_start", LocalDateTime.class).atOffset(ZoneOffset.UTC),
+                rs.getInt("min_price_cents"),
+                rs.getInt("max_price_cents"),
+                rs.getInt("close_price_cents"),
+                rs.getInt("close_quantity"),
+                rs.getLong("samples")), bucket.getTruncationUnit(), sku, from, to);
+    }
+
+    public void ensurePartition(YearMonth month) {
+        jdbcTemplate.queryForObject("SELECT ensure_product_history_partition(?)::TEXT", String.class,
+                month.atDay(1));
+    }
+
+    public int dropPartitionsBefore(YearMonth oldestRetained) {
+        int dropped = 0;
+        for (String partition : jdbcTemplate.queryForList(PARTITIONS_SQL, String.class)) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (!matcher.matches()) {
+                continue;
+            }
+            YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            if (month.isBefore(oldestRetained)) {
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+                dropped++;
+            }
+        }
+        jdbcTemplate.update("DELETE FROM product_history_default WHERE recorded_at < ?",
+                oldestRetained.atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC));
+        return dropped;
+    }
+}
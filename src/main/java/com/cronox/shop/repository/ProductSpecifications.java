@@ -1,6 +1,15 @@
 package com.cronox.shop.repository;
 
+import com.cronox.shop.dto.ProductFilter;
+import com.cronox.shop.entity.Category;
 import com.cronox.shop.entity.Product;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import org.springframework.data.jpa.domain.Specification;
 
 public final class ProductSpecifications {
@@ -19,4 +28,60 @@ public final class ProductSpecifications {
                 ? cb.conjunction()
                 : cb.equal(root.get("sku"), sku);
     }
+
+    public static Specification<Product> inAnyCategory(Collection<String> slugs) {
+        return (root, query, cb) -> {
+            if (slugs == null || slugs.isEmpty()) {
+                return cb.conjunction();
+            }
+            Subquery<Long> subquery = query.subquery(Long.class);
+            Root<Product> product = subquery.correlate(root);
+            Join<Product, Category> category = product.join("categories");
+            subquery.select(category.get("id")).where(category.get("slug").in(slugs));
+            return cb.exists(subquery);
+        };
+    }
+
+    public static Specification<Product> priceBetween(Integer minPriceCents, Integer maxPriceCents) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>(2);
+            if (minPriceCents != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("priceCents"), minPriceCents));
+            }
+            if (maxPriceCents != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("priceCents"), maxPriceCents));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    public static Specification<Product> inStock(boolean inStockOnly) {
+        return (root, query, cb) -> inStockOnly
+                ? cb.greaterThan(root.get("quantity"), 0)
+                : cb.conjunction();
+    }
+
+    public static Specification<Product> matchingIgnoringCategories(ProductFilter filter) {
+        return Specification.where(nameContains(filter.getName()))
+                .and(skuEquals(filter.getSku()))
+                .and(priceBetween(filter.getMinPrice(), filter.getMaxPrice()))
+                .and(inStock(filter.isInStock()));
+    }
+
+    public static Specification<Product> matching(ProductFilter filter) {
+        return matchingIgnoringCategories(filter).and(inAnyCategory(filter.getCategory()));
+    }
+
+    public static Specification<Product> idInOrSkuIn(Collection<Long> ids, Collection<String> skus) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>(2);
+            if (!ids.isEmpty()) {
+                predicates.add(root.get("id").in(ids));
+            }
+            if (!skus.isEmpty()) {
+                predicates.add(root.get("sku").in(skus));
+            }
+            return predicates.isEmpty() ? cb.disjunction() : cb.or(predicates.toArray(new Predicate[0]));
+        };
+    }
 }
@@ -0,0 +1,150 @@
+package com.cronox.shop.repository;
+
+import com.cronox.shop.dto.ProductFilter;
+import com.cronox.shop.dto.ProductResponse;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Readable;
+import jakarta.annotation.PreDestroy;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public class ReactiveProductRepository {
+
+    private static final String SELECT_SQL = """
+            SELECT p.id, p.sku, p.name, p.description, p.price_cents, p.quantity, p.updated_at,
+                   ARRAY(SELECT c.slug FROM product_categories pc JOIN categories c ON c.id = pc.category_id
+                         WHERE pc.product_id = p.id ORDER BY c.slug) AS categories
+            FROM products p
+            """;
+
+    private static final String COUNT_SQL = "SELECT COUNT(*) AS total FROM products p\n";
+
+    private final ConnectionPool connectionPool;
+    private final DatabaseClient databaseClient;
+    private final int fetchSize;
+
+    public ReactiveProductRepository(@Value("${shop.reactive.url:}") String url,
+            @Value("${spring.datasource.url:}") String jdbcUrl,
+            @Value("${spring.datasource.username:}") String username,
+            @Value("${spring.datasource.password:}") String password,
+            @Value("${shop.reactive.pool.initial-size:2}") int initialSize,
+            @Value("${shop.reactive.pool.max-size:20}") int maxSize,
+            @Value("${shop.reactive.fetch-size:250}") int fetchSize) {
+        String r2dbcUrl = url.isBlank() ? jdbcUrl.replaceFirst("^jdbc:", "r2dbc:") : url;
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(r2dbcUrl).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        this.connectionPool = new ConnectionPool(ConnectionPoolConfiguration
+                .builder(ConnectionFactories.get(options))
+                .initialSize(initialSize)
+                .maxSize(maxSize)
+                .build());
+        this.databaseClient = DatabaseClient.create(connectionPool);
+        this.fetchSize = fetchSize;
+    }
+
+    public Mono<ProductResponse> findById(long id) {
+        return databaseClient.sql(SELECT_SQL + "WHERE p.id = :id")
+                .bind("id", id)
+                .map(ReactiveProductRepository::toResponse)
+                .one();
+    }
+
+    public Flux<ProductResponse> findAll(ProductFilter filter, long offset, int limit) {
+        Map<String, Object> bindings = new LinkedHashMap<>();
+        String sql = SELECT_SQL + whereClause(filter, bindings) + "ORDER BY p.id LIMIT :limit OFFSET :offset";
+        bindings.put("limit", limit);
+        bindings.put("offset", offset);
+        return bind(databaseClient.sql(sql), bindings)
+                .map(ReactiveProductRepository::toResponse)
+                .all();
+    }
+
+    public Mono<Long> count(ProductFilter filter) {
+        Map<String, Object> bindings = new LinkedHashMap<>();
+        String sql = COUNT_SQL + whereClause(filter, bindings);
+        return bind(databaseClient.sql(sql), bindings)
+                .map(row -> row.get("total", Long.class))
+                .one();
+    }
+
+    public Flux<ProductResponse> stream(ProductFilter filter) {
+        Map<String, Object> bindings = new LinkedHashMap<>();
+        String sql = SELECT_SQL + whereClause(filter, bindings) + "ORDER BY p.id";
+        return bind(databaseClient.sql(sql), bindings)
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .map(ReactiveProductRepository::toResponse)
+                .all();
+    }
+
+    @PreDestroy
+    public void close() {
+        connectionPool.dispose();
+    }
+
+    private static String whereClause(ProductFilter filter, Map<String, Object> bindings) {
+        List<String> predicates = new ArrayList<>();
+        if (filter.getName() != null && !filter.getName().isBlank()) {
+            predicates.add("LOWER(p.name) LIKE :name");
+            bindings.put("name", "%" + filter.getName().toLowerCase() + "%");
+        }
+        if (filter.getSku() != null && !filter.getSku().isBlank()) {
+            predicates.add("p.sku = :sku");
+            bindings.put("sku", filter.getSku());
+        }
+        if (filter.getMinPrice() != null) {
+            predicates.add("p.price_cents >= :minPrice");
+            bindings.put("minPrice", filter.getMinPrice());
+        }
+        if (filter.getMaxPrice() != null) {
+            predicates.add("p.price_cents <= :maxPrice");
+            bindings.put("maxPrice", filter.getMaxPrice());
+        }
+        if (filter.isInStock()) {
+            predicates.add("p.quantity > 0");
+        }
+        if (filter.getCategory() != null && !filter.getCategory().isEmpty()) {
+            predicates.add("""
+                    EXISTS (SELECT 1 FROM product_categories pc JOIN categories c ON c.id = pc.category_id
+                            WHERE pc.product_id = p.id AND c.slug = ANY(:categories))""");
+            bindings.put("categories", filter.getCategory().toArray(new String[0]));
+        }
+        return predicates.isEmpty() ? "" : "WHERE " + String.join(" AND ", predicates) + "\n";
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec,
+            Map<String, Object> bindings) {
+        for (Map.Entry<String, Object> binding : bindings.entrySet()) {
+            spec = spec.bind(binding.getKey(), binding.getValue());
+        }
+        return spec;
+    }
+
+    private static ProductResponse toResponse(Readable row) {
+        ProductResponse response = new ProductResponse();
+        response.setId(row.get("id", Long.class));
+        response.setSku(row.get("sku", String.class));
+        response.setName(row.get("name", String.class));
+        response.setDescription(row.get("description", String.class));
+        response.setPriceCents(row.get("price_cents", Integer.class));
+        response.setQuantity(row.get("quantity", Integer.class));
+        OffsetDateTime updatedAt = row.get("updated_at", OffsetDateTime.class);
+        response.setUpdatedAt(updatedAt == null ? null : updatedAt.withOffsetSameInstant(ZoneOffset.UTC));
+        response.setCategories(List.of(row.get("categories", String[].class)));
+        return response;
+    }
+}
@@ -0,0 +1,8 @@
+package com.cronox.shop.repository;
+
+public record StockLocation(long warehouseId, String warehouse, int priority, int quantity, int reserved) {
+
+    public int available() {
+        return quantity - reserved;
+    }
+}
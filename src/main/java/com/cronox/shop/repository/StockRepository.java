@@ -0,0 +1,205 @@
+package com.cronox.shop.repository;
+
+import com.cronox.shop.dto.StockLevel;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class StockRepository {
+
+    private static final String ADD_SQL = """
+            WITH target AS (
+                SELECT p.id AS product_id, w.id AS warehouse_id,
+                       CASE WHEN EXISTS (SELECT 1 FROM product_stock s WHERE s.product_id = p.id) THEN 0
+                            ELSE p.quantity END + ? AS delta
+                FROM products p, warehouses w WHERE p.id = ? AND w.code = ?
+            ), changed AS (
+                INSERT INTO product_stock (product_id, warehouse_id, quantity)
+                SELECT product_id, warehouse_id, delta FROM target
+                ON CONFLICT (product_id, warehouse_id) DO UPDATE
+                SET quantity = product_stock.quantity + EXCLUDED.quantity, updated_at = NOW()
+                RETURNING product_id, quantity, reserved
+            ), journal AS (
+                INSERT INTO product_stock_deltas (product_id, delta) SELECT product_id, delta FROM target
+                WHERE EXISTS (SELECT 1 FROM changed)
+            )
+            SELECT quantity, reserved FROM changed
+            """;
+
+    private static final String REMOVE_SQL = """
+            WITH changed AS (
+                UPDATE product_stock s SET quantity = s.quantity + ?, updated_at = NOW()
+                FROM warehouses w
+                WHERE s.product_id = ? AND s.warehouse_id = w.id AND w.code = ? AND s.quantity + ? >= s.reserved
+                RETURNING s.product_id, s.quantity, s.reserved
+            ), journal AS (
+                INSERT INTO product_stock_deltas (product_id, delta) SELECT product_id, ? FROM changed
+            )
+            SELECT quantity, reserved FROM changed
+            """;
+
+    private static final String RESERVE_SQL = """
+            WITH changed AS (
+                UPDATE product_stock s SET reserved = s.reserved + ?, updated_at = NOW()
+                FROM warehouses w
+                WHERE s.product_id = ? AND s.warehouse_id = w.id AND w.code = ?
+                  AND s.reserved + ? BETWEEN 0 AND s.quantity
+                RETURNING s.product_id, s.quantity, s.reserved
+            ), journal AS (
+                INSERT INTO product_stock_deltas (product_id, delta) SELECT product_id, ? FROM changed
+            )
+            SELECT quantity, reserved FROM changed
+            """;
+
+    private static final String LEVELS_SQL = """
+            SELECT w.code, s.quantity, s.reserved
+            FROM product_stock s
+            JOIN warehouses w ON w.id = s.warehouse_id
+            WHERE s.product_id = ?
+            ORDER BY w.priority, w.code
+            """;
+
+    private static final String AVAILABLE_SQL = """
+            SELECT COALESCE((SELECT available FROM product_availability WHERE product_id = ?), 0)
+                 + COALESCE((SELECT SUM(delta) FROM product_stock_deltas WHERE product_id = ?), 0)
+            """;
+
+    private static final String LOCK_SQL = """
+            SELECT s.warehouse_id, w.code, w.priority, s.quantity, s.reserved
+            FROM product_stock s
+            JOIN warehouses w ON w.id = s.warehouse_id
+            WHERE s.product_id = ? AND s.quantity > s.reserved
+            ORDER BY s.warehouse_id
+            FOR UPDATE OF s
+            """;
+
+    private static final String ALLOCATE_SQL = """
+            UPDATE product_stock SET reserved = reserved + ?, updated_at = NOW()
+            WHERE product_id = ? AND warehouse_id = ?
+            """;
+
+    private static final String JOURNAL_SQL = "INSERT INTO product_stock_deltas (product_id, delta) VALUES (?, ?)";
+
+    private static final String CLAIM_SQL = """
+            WITH folded AS (
+                DELETE FROM product_stock_deltas
+                WHERE id IN (SELECT id FROM product_stock_deltas ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED)
+                RETURNING product_id, delta
+            )
+            SELECT product_id, SUM(delta) AS delta FROM folded GROUP BY product_id ORDER BY product_id
+            """;
+
+    private static final String LOCK_PRODUCTS_SQL =
+            "SELECT id FROM products WHERE id = ANY(?) ORDER BY id FOR NO KEY UPDATE";
+
+    private static final String APPLY_SQL = """
+            WITH sums AS (
+                SELECT * FROM unnest(?::BIGINT[], ?::BIGINT[]) AS s (product_id, delta)
+            ), availability AS (
+                INSERT INTO product_availability (product_id, available)
+                SELECT product_id, delta FROM sums
+                ON CONFLICT (product_id)
+                DO UPDATE SET available = product_availability.available + EXCLUDED.available
+                RETURNING product_id, LEAST(available, 2147483647)::INTEGER AS quantity
+            )
+            UPDATE products p SET quantity = a.quantity, updated_at = NOW()
+            FROM availability a
+            WHERE p.id = a.product_id AND p.quantity <> a.quantity
+            RETURNING p.id, p.sku, p.price_cents, p.quantity, p.updated_at
+            """;
+
+    private static final String HAS_LOCATIONS_SQL =
+            "SELECT EXISTS (SELECT 1 FROM product_stock WHERE product_id = ?)";
+
+    private static final String LOCK_PRODUCT_SQL = "SELECT id FROM products WHERE id = ? FOR NO KEY UPDATE";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StockRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // The first location takes over products.quantity; hold lockProduct while the product has none.
+    public Optional<StockLevel> adjust(long productId, String warehouse, int delta) {
+        List<StockLevel> levels = delta >= 0
+                ? jdbcTemplate.query(ADD_SQL, (rs, rowNum) -> new StockLevel(warehouse, rs.getInt("quantity"),
+                        rs.getInt("reserved")), delta, productId, warehouse)
+                : jdbcTemplate.query(REMOVE_SQL, (rs, rowNum) -> new StockLevel(warehouse, rs.getInt("quantity"),
+                        rs.getInt("reserved")), delta, productId, warehouse, delta, delta);
+        return levels.stream().findFirst();
+    }
+
+    public Optional<StockLevel> reserve(long productId, String warehouse, int delta) {
+        return jdbcTemplate.query(RESERVE_SQL, (rs, rowNum) -> new StockLevel(warehouse, rs.getInt("quantity"),
+                rs.getInt("reserved")), delta, productId, warehouse, delta, -delta).stream().findFirst();
+    }
+
+    public List<StockLevel> findLevels(long productId) {
+        return jdbcTemplate.query(LEVELS_SQL, (rs, rowNum) -> new StockLevel(rs.getString("code"),
+                rs.getInt("quantity"), rs.getInt("reserved")), productId);
+    }
+
+    public long findAvailable(long productId) {
+        Long available = jdbcTemplate.queryForObject(AVAILABLE_SQL, Long.class, productId, productId);
+        return available == null ? 0 : available;
+    }
+
+    public List<StockLocation> lockLocations(long productId) {
+        return jdbcTemplate.query(LOCK_SQL, (rs, rowNum) -> new StockLocation(rs.getLong("warehouse_id"),
+                rs.getString("code"), rs.getInt("priority"), rs.getInt("quantity"), rs.getInt("reserved")),
+                productId);
+    }
+
+    public void allocate(long productId, List<StockLocation> locations, int[] quantities) {
+        jdbcTemplate.batchUpdate(ALLOCATE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setInt(1, quantities[i]);
+                ps.setLong(2, productId);
+                ps.setLong(3, locations.get(i).warehouseId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return locations.size();
+            }
+        });
+        jdbcTemplate.update(JOURNAL_SQL, productId, -Arrays.stream(quantities, 0, locations.size()).sum());
+    }
+
+    public boolean hasLocations(long productId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(HAS_LOCATIONS_SQL, Boolean.class, productId));
+    }
+
+    public void lockProduct(long productId) {
+        jdbcTemplate.queryForList(LOCK_PRODUCT_SQL, Long.class, productId);
+    }
+
+    public List<ProductHistoryEntry> foldDeltas(int limit) {
+        Map<Long, Long> sums = new LinkedHashMap<>();
+        jdbcTemplate.query(CLAIM_SQL, (RowCallbackHandler) rs -> sums.put(rs.getLong("product_id"),
+                rs.getLong("delta")), limit);
+        if (sums.isEmpty()) {
+            return List.of();
+        }
+        List<Long> live = jdbcTemplate.queryForList(LOCK_PRODUCTS_SQL, Long.class,
+                (Object) sums.keySet().toArray(new Long[0]));
+        if (live.isEmpty()) {
+            return List.of();
+        }
+        Long[] deltas = live.stream().map(sums::get).toArray(Long[]::new);
+        return jdbcTemplate.query(APPLY_SQL, (rs, rowNum) -> new ProductHistoryEntry(rs.getLong("id"),
+                rs.getString("sku"), rs.getInt("price_cents"), rs.getInt("quantity"),
+                rs.getObject("updated_at", OffsetDateTime.class)), live.toArray(new Long[0]), deltas);
+    }
+}
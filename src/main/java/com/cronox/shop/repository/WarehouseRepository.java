@@ -0,0 +1,12 @@
+package com.cronox.shop.repository;
+
+import com.cronox.shop.entity.Warehouse;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface WarehouseRepository extends JpaRepository<Warehouse, Long> {
+
+    Optional<Warehouse> findByCode(String code);
+
+    boolean existsByCode(String code);
+}
@@ -0,0 +1,42 @@
+package com.cronox.shop.service;
+
+import com.cronox.shop.dto.CategoryRequest;
+import com.cronox.shop.dto.CategoryResponse;
+import com.cronox.shop.dto.PagedResponse;
+import com.cronox.shop.exception.DuplicateCategoryException;
+import com.cronox.shop.mapper.CategoryMapper;
+import com.cronox.shop.repository.CategoryRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@Transactional(readOnly = true)
+public class CategoryService {
+
+    private final CategoryRepository categoryRepository;
+    private final CategoryMapper categoryMapper;
+
+    public CategoryService(CategoryRepository categoryRepository, CategoryMapper categoryMapper) {
+        this.categoryRepository = categoryRepository;
+        this.categoryMapper = categoryMapper;
+    }
+
+    public PagedResponse<CategoryResponse> listCategories(int page, int size) {
+        Page<CategoryResponse> categoryPage = categoryRepository
+                .findAll(PageRequest.of(page, size, Sort.by("slug")))
+                .map(categoryMapper::toResponse);
+        return new PagedResponse<>(categoryPage.getContent(), categoryPage.getNumber(), categoryPage.getSize(),
+                categoryPage.getTotalElements(), categoryPage.getTotalPages());
+    }
+
+    @Transactional
+    public CategoryResponse createCategory(CategoryRequest request) {
+        if (categoryRepository.existsBySlug(request.getSlug())) {
+            throw new DuplicateCategoryException(request.getSlug());
+        }
+        return categoryMapper.toResponse(categoryRepository.save(categoryMapper.toEntity(request)));
+    }
+}
@@ -0,0 +1,254 @@
+package com.cronox.shop.service;
+
+import com.cronox.shop.exception.IdempotencyKeyInProgressException;
+import com.cronox.shop.exception.IdempotencyKeyMismatchException;
+import com.cronox.shop.repository.IdempotencyKeyRepository;
+import com.cronox.shop.repository.IdempotencyRecord;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Service
+public class IdempotencyService {
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+    private static final HexFormat HEX = HexFormat.of();
+    private static final long MIN_POLL_MILLIS = 20;
+    private static final long MAX_POLL_MILLIS = 500;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final Duration lockTimeout;
+    private final Duration waitTimeout;
+    private final int cacheSize;
+    private final ConcurrentHashMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, StoredResponse> completed = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyKeyRepository idempotencyKeyRepository,
+            ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+            @Value("${shop.idempotency.ttl:PT24H}") Duration ttl,
+            @Value("${shop.idempotency.lock-timeout:PT30S}") Duration lockTimeout,
+            @Value("${shop.idempotency.wait-timeout:PT10S}") Duration waitTimeout,
+            @Value("${shop.idempotency.cache-size:10000}") int cacheSize) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.lockTimeout = lockTimeout;
+        this.waitTimeout = waitTimeout;
+        this.cacheSize = cacheSize;
+    }
+
+    public <T> ResponseEntity<T> execute(String key, String scope, Object request, Class<T> responseType,
+            Supplier<ResponseEntity<T>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        byte[] keyHash = sha256(scope + '\n' + key);
+        byte[] requestHash = sha256(toJson(request));
+        String cacheKey = HEX.formatHex(keyHash);
+
+        StoredResponse cached = completed.get(cacheKey);
+        if (cached != null && cached.expiresAt().isAfter(now())) {
+            return replay(cached, requestHash, responseType);
+        }
+
+        InFlight leader = new InFlight(requestHash, new CompletableFuture<>());
+        InFlight existing = inFlight.putIfAbsent(cacheKey, leader);
+        if (existing != null) {
+            if (!Arrays.equals(existing.requestHash(), requestHash)) {
+                throw new IdempotencyKeyMismatchException();
+            }
+            return replay(awaitLocal(existing.response()), requestHash, responseType);
+        }
+        try {
+            StoredResponse stored = executeOnce(keyHash, requestHash, action);
+            leader.response().complete(stored);
+            remember(cacheKey, stored);
+            return stored.replayed() ? replay(stored, requestHash, responseType) : cast(stored.entity());
+        } catch (RuntimeException | Error ex) {
+            leader.response().completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(cacheKey, leader);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shop.idempotency.cleanup-interval:PT10M}",
+            initialDelayString = "${shop.idempotency.cleanup-interval:PT10M}")
+    public void deleteExpired() {
+        OffsetDateTime now = now();
+        completed.values().removeIf(stored -> !stored.expiresAt().isAfter(now));
+        int deleted = idempotencyKeyRepository.deleteExpired();
+        if (deleted > 0) {
+            log.debug("Deleted {} expired idempotency keys", deleted);
+        }
+    }
+
+    private <T> StoredResponse executeOnce(byte[] keyHash, byte[] requestHash, Supplier<ResponseEntity<T>> action) {
+        long pollMillis = MIN_POLL_MILLIS;
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        while (true) {
+            OffsetDateTime now = now();
+            OffsetDateTime lockedUntil = now.plus(lockTimeout);
+            if (idempotencyKeyRepository.tryClaim(keyHash, requestHash, lockedUntil, now.plus(ttl))) {
+                return runAndStore(keyHash, requestHash, lockedUntil, action);
+            }
+            Optional<IdempotencyRecord> record = idempotencyKeyRepository.find(keyHash);
+            if (record.isPresent() && !Arrays.equals(record.get().requestHash(), requestHash)) {
+                throw new IdempotencyKeyMismatchException();
+            }
+            if (record.isPresent() && record.get().isCompleted()) {
+                IdempotencyRecord stored = record.get();
+                return new StoredResponse(stored.requestHash(), stored.responseStatus(), stored.responseBody(),
+                        null, stored.expiresAt(), true);
+            }
+            if ((record.isEmpty() || record.get().lockedUntil().isBefore(now))
+                    && idempotencyKeyRepository.tryClaimStale(keyHash, requestHash, lockedUntil, now.plus(ttl))) {
+                return runAndStore(keyHash, requestHash, lockedUntil, action);
+            }
+            if (System.nanoTime() - deadline > 0) {
+                throw new IdempotencyKeyInProgressException();
+            }
+            sleep(pollMillis);
+            pollMillis = Math.min(pollMillis * 2, MAX_POLL_MILLIS);
+        }
+    }
+
+    private <T> StoredResponse runAndStore(byte[] keyHash, byte[] requestHash, OffsetDateTime lockedUntil,
+            Supplier<ResponseEntity<T>> action) {
+        try {
+            return transactionTemplate.execute(status -> {
+                if (!idempotencyKeyRepository.lockClaim(keyHash, lockedUntil)) {
+                    throw new IdempotencyKeyInProgressException();
+                }
+                ResponseEntity<T> response = action.get();
+                String body = toJson(response.getBody());
+                idempotencyKeyRepository.complete(keyHash, response.getStatusCode().value(), body);
+                return new StoredResponse(requestHash, response.getStatusCode().value(), body, response,
+                        now().plus(ttl), false);
+            });
+        } catch (IdempotencyKeyInProgressException ex) {
+            throw ex;
+        } catch (RuntimeException | Error ex) {
+            idempotencyKeyRepository.release(keyHash, lockedUntil);
+            throw ex;
+        }
+    }
+
+    private StoredResponse awaitLocal(CompletableFuture<StoredResponse> shared) {
+        try {
+            return shared.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyInProgressException();
+        } catch (TimeoutException ex) {
+            throw new IdempotencyKeyInProgressException();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    private <T> ResponseEntity<T> replay(StoredResponse stored, byte[] requestHash, Class<T> responseType) {
+        if (!Arrays.equals(stored.requestHash(), requestHash)) {
+            throw new IdempotencyKeyMismatchException();
+        }
+        try {
+            T body = stored.body() == null ? null : objectMapper.readValue(stored.body(), responseType);
+            return ResponseEntity.status(HttpStatus.valueOf(stored.status()))
+                    .header(REPLAYED_HEADER, "true")
+                    .body(body);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Stored idempotent response could not be read", ex);
+        }
+    }
+
+    private void remember(String cacheKey, StoredResponse stored) {
+        if (completed.size() >= cacheSize) {
+            OffsetDateTime now = now();
+            completed.values().removeIf(existing -> !existing.expiresAt().isAfter(now));
+        }
+        if (completed.size() < cacheSize) {
+            completed.put(cacheKey, stored.withoutEntity());
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize idempotent payload", ex);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> ResponseEntity<T> cast(ResponseEntity<?> entity) {
+        return (ResponseEntity<T>) entity;
+    }
+
+    private static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyInProgressException();
+        }
+    }
+
+    private static OffsetDateTime now() {
+        return OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.MICROS);
+    }
+
+    private record InFlight(byte[] requestHash, CompletableFuture<StoredResponse> response) {
+    }
+
+    private record StoredResponse(byte[] requestHash, int status, String body, ResponseEntity<?> entity,
+            OffsetDateTime expiresAt, boolean replayed) {
+
+        StoredResponse withoutEntity() {
+            return new StoredResponse(requestHash, status, body, null, expiresAt, true);
+        }
+    }
+}
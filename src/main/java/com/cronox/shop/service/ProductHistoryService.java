@@ -0,0 +1,162 @@
+package com.cronox.shop.service;
+
+import com.cronox.shop.dto.HistoryBucket;
+import com.cronox.shop.dto.ProductHistoryPoint;
+import com.cronox.shop.entity.Product;
+import com.cronox.shop.exception.InvalidHistoryRangeException;
+import com.cronox.shop.repository.ProductHistoryEntry;
+import com.cronox.shop.repository.ProductHistoryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Service
+public class ProductHistoryService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductHistoryService.class);
+
+    private final ProductHistoryRepository historyRepository;
+    private final BlockingQueue<ProductHistoryEntry> pending;
+    private final int batchSize;
+    private final int writeAttempts;
+    private final int retentionMonths;
+    private final int partitionsAhead;
+    private final Duration maxHourlyRange;
+    private final Counter droppedEntries;
+    private final Counter writtenEntries;
+    private final List<ProductHistoryEntry> batch;
+    private int failedAttempts;
+
+    public ProductHistoryService(ProductHistoryRepository historyRepository, MeterRegistry meterRegistry,
+            @Value("${shop.history.queue-capacity:50000}") int queueCapacity,
+            @Value("${shop.history.batch-size:500}") int batchSize,
+            @Value("${shop.history.write-attempts:3}") int writeAttempts,
+            @Value("${shop.history.retention-months:24}") int retentionMonths,
+            @Value("${shop.history.partitions-ahead:2}") int partitionsAhead,
+            @Value("${shop.history.max-hourly-range:P31D}") Duration maxHourlyRange) {
+        this.historyRepository = historyRepository;
+        this.pending = new LinkedBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.writeAttempts = writeAttempts;
+        this.batch = new ArrayList<>(batchSize);
+        this.retentionMonths = retentionMonths;
+        this.partitionsAhead = partitionsAhead;
+        this.maxHourlyRange = maxHourlyRange;
+        this.droppedEntries = Counter.builder("shop.products.history.dropped")
+                .description("History entries dropped on a full write queue or after repeated write failures")
+                .register(meterRegistry);
+        this.writtenEntries = Counter.builder("shop.products.history.written")
+                .description("History entries written to product_history")
+                .register(meterRegistry);
+    }
+
+    public void record(Product product) {
+        record(new ProductHistoryEntry(product.getId(), product.getSku(), product.getPriceCents(),
+                product.getQuantity(), OffsetDateTime.now(ZoneOffset.UTC)));
+    }
+
+    public void record(ProductHistoryEntry entry) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(entry);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(entry);
+            }
+        });
+    }
+
+    public List<ProductHistoryPoint> getHistory(String sku, OffsetDateTime from, OffsetDateTime to,
+            HistoryBucket bucket) {
+        if (!from.isBefore(to)) {
+            throw new InvalidHistoryRangeException("'from' must be before 'to'");
+        }
+        if (bucket == HistoryBucket.HOUR && Duration.between(from, to).compareTo(maxHourlyRange) > 0) {
+            throw new InvalidHistoryRangeException(
+                    "Hourly history is limited to %d days, use bucket=DAY".formatted(maxHourlyRange.toDays()));
+        }
+        return historyRepository.findBuckets(sku, from, to, bucket);
+    }
+
+    @Scheduled(fixedDelayString = "${shop.history.flush-interval:PT1S}")
+    public synchronized void flush() {
+        if (!batch.isEmpty() && !writeBatch()) {
+            return;
+        }
+        while (pending.drainTo(batch, batchSize) > 0) {
+            if (!writeBatch()) {
+                return;
+            }
+        }
+    }
+
+    private boolean writeBatch() {
+        try {
+            historyRepository.insertBatch(batch);
+            writtenEntries.increment(batch.size());
+            batch.clear();
+            failedAttempts = 0;
+            return true;
+        } catch (RuntimeException ex) {
+            failedAttempts++;
+            if (failedAttempts < writeAttempts) {
+                log.warn("Failed to write {} product history entries (attempt {} of {}), retrying on next flush",
+                        batch.size(), failedAttempts, writeAttempts, ex);
+            } else {
+                droppedEntries.increment(batch.size());
+                log.error("Dropped {} product history entries after {} failed writes", batch.size(),
+                        failedAttempts, ex);
+                batch.clear();
+                failedAttempts = 0;
+            }
+            return false;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${shop.history.maintenance-cron:0 15 3 * * *}", zone = "UTC")
+    public void maintainPartitions() {
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        try {
+            for (int ahead = 0; ahead <= partitionsAhead; ahead++) {
+                historyRepository.ensurePartition(current.plusMonths(ahead));
+            }
+            int dropped = historyRepository.dropPartitionsBefore(current.minusMonths(retentionMonths));
+            if (dropped > 0) {
+                log.info("Dropped {} product history partitions older than {} months", dropped, retentionMonths);
+            }
+        } catch (RuntimeException ex) {
+            log.error("Product history partition maintenance failed", ex);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void enqueue(ProductHistoryEntry entry) {
+        if (!pending.offer(entry)) {
+            droppedEntries.increment();
+        }
+    }
+}
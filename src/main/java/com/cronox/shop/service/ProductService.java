@@ -1,51 +1,175 @@
 package com.cronox.shop.service;
 
 import com.cronox.shop.dto.PagedResponse;
+import com.cronox.shop.dto.ProductBatchResponse;
+import com.cronox.shop.dto.ProductFacetsResponse;
+import com.cronox.shop.dto.ProductFilter;
 import com.cronox.shop.dto.ProductRequest;
 import com.cronox.shop.dto.ProductResponse;
+import com.cronox.shop.entity.Category;
 import com.cronox.shop.entity.Product;
 import com.cronox.shop.exception.DuplicateSkuException;
 import com.cronox.shop.exception.InsufficientStockException;
+import com.cronox.shop.exception.InvalidBatchRequestException;
+import com.cronox.shop.exception.ProductNotArchivedException;
 import com.cronox.shop.exception.ProductNotFoundException;
+import com.cronox.shop.exception.UnknownCategoryException;
+import com.cronox.shop.exception.WarehouseManagedStockException;
 import com.cronox.shop.mapper.ProductMapper;
+import com.cronox.shop.repository.CategoryRepository;
+import com.cronox.shop.repository.ProductArchiveRepository;
 import com.cronox.shop.repository.ProductRepository;
 import com.cronox.shop.repository.ProductSpecifications;
+import com.cronox.shop.repository.StockRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 @Transactional(readOnly = true)
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final ProductArchiveRepository productArchiveRepository;
+    private final StockRepository stockRepository;
     private final ProductMapper productMapper;
+    private final ProductHistoryService productHistoryService;
+    private final TransactionTemplate readTransaction;
+    private final int batchMaxKeys;
+    private final boolean coalescingEnabled;
+    private final SingleFlight<Long, ProductResponse> productById;
+    private final SingleFlight<String, ProductResponse> productBySku;
+    private final SingleFlight<ListQuery, PagedResponse<ProductResponse>> productPages;
 
-    public ProductService(ProductRepository productRepository, ProductMapper productMapper) {
+    public ProductService(ProductRepository productRepository, ProductMapper productMapper,
+            CategoryRepository categoryRepository, StockRepository stockRepository,
+            ProductArchiveRepository productArchiveRepository,
+            ProductHistoryService productHistoryService,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+            @Value("${shop.products.batch.max-keys:500}") int batchMaxKeys,
+            @Value("${shop.products.coalescing.enabled:true}") boolean coalescingEnabled,
+            @Value("${shop.products.coalescing.max-in-flight:10000}") int coalescingMaxInFlight) {
         this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.productArchiveRepository = productArchiveRepository;
+        this.stockRepository = stockRepository;
         this.productMapper = productMapper;
+        this.productHistoryService = productHistoryService;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.batchMaxKeys = batchMaxKeys;
+        this.coalescingEnabled = coalescingEnabled;
+        this.productById = new SingleFlight<>(coalescingMaxInFlight,
+                coalescedCounter(meterRegistry, "getProduct")::increment);
+        this.productBySku = new SingleFlight<>(coalescingMaxInFlight,
+                coalescedCounter(meterRegistry, "getProductBySku")::increment);
+        this.productPages = new SingleFlight<>(coalescingMaxInFlight,
+                coalescedCounter(meterRegistry, "listProducts")::increment);
     }
 
-    @Transactional(readOnly = true)
-    public PagedResponse<ProductResponse> listProducts(int page, int size, String name, String sku) {
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public PagedResponse<ProductResponse> listProducts(int page, int size, ProductFilter filter) {
+        return coalesce(productPages, new ListQuery(page, size, filter), () -> loadProducts(page, size, filter));
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public ProductResponse getProduct(Long id) {
+        return coalesce(productById, id, () -> loadProduct(id));
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public ProductResponse getProductBySku(String sku) {
+        return coalesce(productBySku, sku, () -> loadProductBySku(sku));
+    }
+
+    public ProductFacetsResponse getFacets(ProductFilter filter, int limit) {
+        return new ProductFacetsResponse(productRepository.countByCategory(
+                ProductSpecifications.matchingIgnoringCategories(filter), limit));
+    }
+
+    private PagedResponse<ProductResponse> loadProducts(int page, int size, ProductFilter filter) {
         Pageable pageable = PageRequest.of(page, size);
-        Specification<Product> spec = Specification.where(ProductSpecifications.nameContains(name))
-                .and(ProductSpecifications.skuEquals(sku));
-        Page<ProductResponse> productPage = productRepository.findAll(spec, pageable)
+        Page<ProductResponse> productPage = productRepository
+                .findAll(ProductSpecifications.matching(filter), pageable)
                 .map(productMapper::toResponse);
         return new PagedResponse<>(productPage.getContent(), productPage.getNumber(), productPage.getSize(),
                 productPage.getTotalElements(), productPage.getTotalPages());
     }
 
-    @Transactional(readOnly = true)
-    public ProductResponse getProduct(Long id) {
+    private ProductResponse loadProduct(Long id) {
         Product product = productRepository.findById(id).orElseThrow(() -> new ProductNotFoundException(id));
         return productMapper.toResponse(product);
     }
 
+    private ProductResponse loadProductBySku(String sku) {
+        Product product = productRepository.findBySku(sku).orElseThrow(() -> new ProductNotFoundException(sku));
+        return productMapper.toResponse(product);
+    }
+
+    @Transactional(readOnly = true)
+    public ProductBatchResponse getProductsBatch(List<Long> ids, List<String> skus) {
+        Set<Long> distinctIds = distinctKeys(ids);
+        Set<String> distinctSkus = distinctKeys(skus);
+        int keyCount = distinctIds.size() + distinctSkus.size();
+        if (keyCount == 0) {
+            throw new InvalidBatchRequestException("At least one id or sku is required");
+        }
+        if (keyCount > batchMaxKeys) {
+            throw new InvalidBatchRequestException(
+                    "Batch requests are limited to %d keys, got %d".formatted(batchMaxKeys, keyCount));
+        }
+
+        List<Product> products = productRepository.findAll(
+                ProductSpecifications.idInOrSkuIn(distinctIds, distinctSkus));
+        Map<Long, Product> byId = new HashMap<>(products.size() * 2);
+        Map<String, Product> bySku = new HashMap<>(products.size() * 2);
+        for (Product product : products) {
+            byId.put(product.getId(), product);
+            bySku.put(product.getSku(), product);
+        }
+
+        // Requested ids first, then skus; a product matched by both keys is returned once, at its id position.
+        Map<Long, ProductResponse> content = new LinkedHashMap<>(keyCount * 2);
+        List<Long> missingIds = new ArrayList<>();
+        List<String> missingSkus = new ArrayList<>();
+        for (Long id : distinctIds) {
+            Product product = byId.get(id);
+            if (product == null) {
+                missingIds.add(id);
+            } else {
+                content.putIfAbsent(product.getId(), productMapper.toResponse(product));
+            }
+        }
+        for (String sku : distinctSkus) {
+            Product product = bySku.get(sku);
+            if (product == null) {
+                missingSkus.add(sku);
+            } else if (!content.containsKey(product.getId())) {
+                content.put(product.getId(), productMapper.toResponse(product));
+            }
+        }
+        return new ProductBatchResponse(new ArrayList<>(content.values()), missingIds, missingSkus);
+    }
+
     @Transactional
     public ProductResponse createProduct(ProductRequest request) {
         if (productRepository.existsBySku(request.getSku())) {
@@ -53,6 +177,7 @@ public class ProductService {
         }
         Product product = productMapper.toEntity(request);
         Product saved = productRepository.save(product);
+        productHistoryService.record(saved);
         return productMapper.toResponse(saved);
     }
 
@@ -62,39 +187,133 @@ public class ProductService {
         if (productRepository.existsBySkuAndIdNot(request.getSku(), id)) {
             throw new DuplicateSkuException(request.getSku());
         }
+        Integer previousPriceCents = product.getPriceCents();
+        Integer previousQuantity = product.getQuantity();
         productMapper.updateEntity(product, request);
-        return productMapper.toResponse(productRepository.save(product));
+        keepWarehouseQuantity(product, previousQuantity);
+        Product saved = productRepository.save(product);
+        recordIfChanged(saved, previousPriceCents, previousQuantity);
+        return productMapper.toResponse(saved);
     }
 
     @Transactional
     public ProductResponse upsertBySku(ProductRequest request) {
         return productRepository.findBySku(request.getSku())
                 .map(existing -> {
+                    Integer previousPriceCents = existing.getPriceCents();
+                    Integer previousQuantity = existing.getQuantity();
                     productMapper.updateEntity(existing, request);
-                    return productMapper.toResponse(productRepository.save(existing));
+                    keepWarehouseQuantity(existing, previousQuantity);
+                    Product saved = productRepository.save(existing);
+                    recordIfChanged(saved, previousPriceCents, previousQuantity);
+                    return productMapper.toResponse(saved);
                 })
                 .orElseGet(() -> {
                     Product created = productRepository.save(productMapper.toEntity(request));
+                    productHistoryService.record(created);
                     return productMapper.toResponse(created);
                 });
     }
 
     @Transactional
     public ProductResponse adjustQuantity(Long id, int delta) {
+        stockRepository.lockProduct(id);
         Product product = productRepository.findById(id).orElseThrow(() -> new ProductNotFoundException(id));
+        if (stockRepository.hasLocations(id)) {
+            throw new WarehouseManagedStockException(id);
+        }
         int newQuantity = product.getQuantity() + delta;
         if (newQuantity < 0) {
             throw new InsufficientStockException(id);
         }
         product.setQuantity(newQuantity);
+        Product saved = productRepository.save(product);
+        if (delta != 0) {
+            productHistoryService.record(saved);
+        }
+        return productMapper.toResponse(saved);
+    }
+
+    @Transactional
+    public ProductResponse assignCategories(Long id, List<String> slugs) {
+        Product product = productRepository.findById(id).orElseThrow(() -> new ProductNotFoundException(id));
+        Set<String> distinctSlugs = distinctKeys(slugs);
+        Set<Category> categories = new LinkedHashSet<>(distinctSlugs.isEmpty()
+                ? List.of()
+                : categoryRepository.findBySlugIn(distinctSlugs));
+        if (categories.size() < distinctSlugs.size()) {
+            Set<String> unknown = new LinkedHashSet<>(distinctSlugs);
+            categories.forEach(category -> unknown.remove(category.getSlug()));
+            throw new UnknownCategoryException(unknown);
+        }
+        product.getCategories().clear();
+        product.getCategories().addAll(categories);
         return productMapper.toResponse(productRepository.save(product));
     }
 
     @Transactional
     public void deleteProduct(Long id) {
-        if (!productRepository.existsById(id)) {
+        if (!productArchiveRepository.archive(id)) {
             throw new ProductNotFoundException(id);
         }
-        productRepository.deleteById(id);
+    }
+
+    @Transactional
+    public ProductResponse restoreProduct(Long id) {
+        if (!productArchiveRepository.restore(id)) {
+            Optional<String> archivedSku = productArchiveRepository.findSku(id);
+            if (archivedSku.isPresent()) {
+                throw new DuplicateSkuException(archivedSku.get());
+            }
+            throw productRepository.existsById(id) ? new ProductNotArchivedException(id)
+                    : new ProductNotFoundException(id);
+        }
+        Product restored = productRepository.findById(id).orElseThrow(() -> new ProductNotFoundException(id));
+        productHistoryService.record(restored);
+        return productMapper.toResponse(restored);
+    }
+
+    private void keepWarehouseQuantity(Product product, Integer previousQuantity) {
+        stockRepository.lockProduct(product.getId());
+        if (stockRepository.hasLocations(product.getId())) {
+            product.setQuantity(previousQuantity);
+        }
+    }
+
+    private void recordIfChanged(Product product, Integer previousPriceCents, Integer previousQuantity) {
+        if (!product.getPriceCents().equals(previousPriceCents)
+                || !product.getQuantity().equals(previousQuantity)) {
+            productHistoryService.record(product);
+        }
+    }
+
+    // Callers already in a transaction load directly so they keep seeing their own uncommitted writes.
+    private <K, V> V coalesce(SingleFlight<K, V> singleFlight, K key, Supplier<V> loader) {
+        if (!coalescingEnabled || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return readTransaction.execute(status -> loader.get());
+        }
+        return singleFlight.load(key, () -> readTransaction.execute(status -> loader.get()));
+    }
+
+    private static Counter coalescedCounter(MeterRegistry meterRegistry, String operation) {
+        return Counter.builder("shop.products.reads.coalesced")
+                .description("Reads served by another caller's in-flight load instead of querying the database")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    private static <T> Set<T> distinctKeys(List<T> keys) {
+        Set<T> distinct = new LinkedHashSet<>();
+        if (keys != null) {
+            for (T key : keys) {
+                if (key != null) {
+                    distinct.add(key);
+                }
+            }
+        }
+        return distinct;
+    }
+
+    private record ListQuery(int page, int size, ProductFilter filter) {
     }
 }
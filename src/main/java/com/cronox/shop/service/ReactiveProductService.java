@@ -0,0 +1,48 @@
+package com.cronox.shop.service;
+
+import com.cronox.shop.dto.PagedResponse;
+import com.cronox.shop.dto.ProductFilter;
+import com.cronox.shop.dto.ProductResponse;
+import com.cronox.shop.exception.ProductNotFoundException;
+import com.cronox.shop.exception.TooManyStreamsException;
+import com.cronox.shop.repository.ReactiveProductRepository;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+public class ReactiveProductService {
+
+    private final ReactiveProductRepository reactiveProductRepository;
+    private final int maxConcurrentStreams;
+    private final AtomicInteger openStreams = new AtomicInteger();
+
+    public ReactiveProductService(ReactiveProductRepository reactiveProductRepository,
+            @Value("${shop.reactive.max-concurrent-streams:10}") int maxConcurrentStreams) {
+        this.reactiveProductRepository = reactiveProductRepository;
+        this.maxConcurrentStreams = maxConcurrentStreams;
+    }
+
+    public Mono<PagedResponse<ProductResponse>> listProducts(int page, int size, ProductFilter filter) {
+        return Mono.zip(reactiveProductRepository.findAll(filter, (long) page * size, size).collectList(),
+                        reactiveProductRepository.count(filter))
+                .map(result -> new PagedResponse<>(result.getT1(), page, size, result.getT2(),
+                        (int) ((result.getT2() + size - 1) / size)));
+    }
+
+    public Mono<ProductResponse> getProduct(Long id) {
+        return reactiveProductRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ProductNotFoundException(id)));
+    }
+
+    public Flux<ProductResponse> streamProducts(ProductFilter filter) {
+        if (openStreams.incrementAndGet() > maxConcurrentStreams) {
+            openStreams.decrementAndGet();
+            throw new TooManyStreamsException(maxConcurrentStreams);
+        }
+        return reactiveProductRepository.stream(filter)
+                .doFinally(signal -> openStreams.decrementAndGet());
+    }
+}
@@ -0,0 +1,176 @@
+package com.cronox.shop.service;
+
+import com.cronox.shop.dto.ReadinessResponse;
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.LivenessState;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+@Service
+public class ReadinessService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadinessService.class);
+
+    private final JdbcTemplate probeTemplate;
+    private final Supplier<HikariPoolMXBean> poolSupplier;
+    private final ApplicationAvailability availability;
+    private final Clock clock;
+    private final Duration maxProbeAge;
+    private final int maxPendingThreads;
+    private final Executor probeExecutor;
+    private final AtomicBoolean probing = new AtomicBoolean();
+    private volatile ProbeResult lastProbe;
+
+    @Autowired
+    public ReadinessService(DataSource dataSource, ApplicationAvailability availability,
+            @Value("${shop.health.db-probe-timeout:PT2S}") Duration probeTimeout,
+            @Value("${shop.health.max-probe-age:PT15S}") Duration maxProbeAge,
+            @Value("${shop.health.max-pending-threads:10}") int maxPendingThreads) {
+        this(probeTemplate(dataSource, probeTimeout), poolSupplier(dataSource), availability, Clock.systemUTC(),
+                maxProbeAge, maxPendingThreads, Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "db-probe");
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+    }
+
+    ReadinessService(JdbcTemplate probeTemplate, Supplier<HikariPoolMXBean> poolSupplier,
+            ApplicationAvailability availability, Clock clock, Duration maxProbeAge, int maxPendingThreads,
+            Executor probeExecutor) {
+        this.probeTemplate = probeTemplate;
+        this.poolSupplier = poolSupplier;
+        this.availability = availability;
+        this.clock = clock;
+        this.maxProbeAge = maxProbeAge;
+        this.maxPendingThreads = maxPendingThreads;
+        this.probeExecutor = probeExecutor;
+    }
+
+    @Scheduled(fixedDelayString = "${shop.health.db-probe-interval:PT5S}")
+    public void probeDatabase() {
+        HikariPoolMXBean pool = poolSupplier.get();
+        if (pool != null && pool.getThreadsAwaitingConnection() > maxPendingThreads) {
+            // Queuing behind request threads would only add load; the previous result ages out instead.
+            return;
+        }
+        if (!probing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            probeExecutor.execute(() -> {
+                try {
+                    probe();
+                } finally {
+                    probing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            probing.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (probeExecutor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    private void probe() {
+        try {
+            probeTemplate.execute("SELECT 1");
+            lastProbe = new ProbeResult(true, clock.instant());
+        } catch (RuntimeException ex) {
+            if (lastProbe == null || lastProbe.up()) {
+                log.warn("Database probe failed: {}", ex.getMessage());
+            }
+            lastProbe = new ProbeResult(false, clock.instant());
+        }
+    }
+
+    public boolean isLive() {
+        return availability.getLivenessState() == LivenessState.CORRECT;
+    }
+
+    public ReadinessResponse readiness() {
+        List<String> reasons = new ArrayList<>(3);
+        ReadinessResponse response = new ReadinessResponse();
+
+        if (availability.getReadinessState() != ReadinessState.ACCEPTING_TRAFFIC) {
+            reasons.add("application is not accepting traffic");
+        }
+
+        ProbeResult probe = lastProbe;
+        if (probe == null) {
+            response.setDatabase("UNKNOWN");
+            reasons.add("database has not been probed yet");
+        } else {
+            response.setDatabaseCheckedAt(OffsetDateTime.ofInstant(probe.checkedAt(), ZoneOffset.UTC));
+            if (Duration.between(probe.checkedAt(), clock.instant()).compareTo(maxProbeAge) > 0) {
+                response.setDatabase("STALE");
+                reasons.add("database probe is older than " + maxProbeAge.toSeconds() + "s");
+            } else if (!probe.up()) {
+                response.setDatabase("DOWN");
+                reasons.add("database is unreachable");
+            } else {
+                response.setDatabase("UP");
+            }
+        }
+
+        HikariPoolMXBean pool = poolSupplier.get();
+        if (pool != null) {
+            int pending = pool.getThreadsAwaitingConnection();
+            response.setPoolActive(pool.getActiveConnections());
+            response.setPoolIdle(pool.getIdleConnections());
+            response.setPoolTotal(pool.getTotalConnections());
+            response.setPoolPending(pending);
+            if (pending > maxPendingThreads) {
+                reasons.add("connection pool saturated: " + pending + " threads waiting");
+            }
+        }
+
+        response.setReasons(reasons);
+        response.setStatus(reasons.isEmpty() ? "UP" : "OUT_OF_SERVICE");
+        return response;
+    }
+
+    private static JdbcTemplate probeTemplate(DataSource dataSource, Duration probeTimeout) {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setQueryTimeout((int) Math.max(1, probeTimeout.toSeconds()));
+        return template;
+    }
+
+    private static Supplier<HikariPoolMXBean> poolSupplier(DataSource dataSource) {
+        HikariDataSource hikari = DataSourceUnwrapper.unwrap(dataSource, HikariConfigMXBean.class,
+                HikariDataSource.class);
+        return hikari == null ? () -> null : hikari::getHikariPoolMXBean;
+    }
+
+    private record ProbeResult(boolean up, Instant checkedAt) {
+    }
+}
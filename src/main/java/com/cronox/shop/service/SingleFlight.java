@@ -0,0 +1,87 @@
+package com.cronox.shop.service;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+public final class SingleFlight<K, V> {
+
+    public interface Listener {
+
+        void onShared();
+    }
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicInteger trackedKeys = new AtomicInteger();
+    private final int maxInFlight;
+    private final Listener listener;
+
+    public SingleFlight(int maxInFlight, Listener listener) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be positive");
+        }
+        this.maxInFlight = maxInFlight;
+        this.listener = listener;
+    }
+
+    public V load(K key, Supplier<V> loader) {
+        CompletableFuture<V> existing = inFlight.get(key);
+        if (existing != null) {
+            return await(existing);
+        }
+        if (trackedKeys.incrementAndGet() > maxInFlight) {
+            trackedKeys.decrementAndGet();
+            return loader.get();
+        }
+
+        CompletableFuture<V> leader = new CompletableFuture<>();
+        existing = inFlight.putIfAbsent(key, leader);
+        if (existing != null) {
+            trackedKeys.decrementAndGet();
+            return await(existing);
+        }
+
+        try {
+            V value = loader.get();
+            leader.complete(value);
+            return value;
+        } catch (RuntimeException | Error ex) {
+            leader.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, leader);
+            trackedKeys.decrementAndGet();
+        }
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private V await(CompletableFuture<V> shared) {
+        try {
+            V value = shared.get();
+            listener.onShared();
+            return value;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            CancellationException cancellation =
+                    new CancellationException("Interrupted while awaiting shared load");
+            cancellation.initCause(ex);
+            throw cancellation;
+        } catch (ExecutionException ex) {
+            listener.onShared();
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
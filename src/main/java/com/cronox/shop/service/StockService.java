@@ -0,0 +1,125 @@
+package com.cronox.shop.service;
+
+import com.cronox.shop.dto.ProductStockResponse;
+import com.cronox.shop.dto.StockAllocation;
+import com.cronox.shop.dto.StockAllocationResponse;
+import com.cronox.shop.dto.StockLevel;
+import com.cronox.shop.exception.InsufficientStockException;
+import com.cronox.shop.exception.ProductNotFoundException;
+import com.cronox.shop.exception.WarehouseNotFoundException;
+import com.cronox.shop.repository.ProductHistoryEntry;
+import com.cronox.shop.repository.ProductRepository;
+import com.cronox.shop.repository.StockLocation;
+import com.cronox.shop.repository.StockRepository;
+import com.cronox.shop.repository.WarehouseRepository;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@Transactional(readOnly = true)
+public class StockService {
+
+    private static final Logger log = LoggerFactory.getLogger(StockService.class);
+
+    private static final Comparator<StockLocation> ALLOCATION_ORDER = Comparator
+            .comparingInt(StockLocation::priority)
+            .thenComparing(Comparator.comparingInt(StockLocation::available).reversed())
+            .thenComparingLong(StockLocation::warehouseId);
+
+    private final StockRepository stockRepository;
+    private final ProductRepository productRepository;
+    private final WarehouseRepository warehouseRepository;
+    private final ProductHistoryService productHistoryService;
+    private final int foldBatchSize;
+
+    public StockService(StockRepository stockRepository, ProductRepository productRepository,
+            WarehouseRepository warehouseRepository, ProductHistoryService productHistoryService,
+            @Value("${shop.stock.fold-batch-size:10000}") int foldBatchSize) {
+        this.stockRepository = stockRepository;
+        this.productRepository = productRepository;
+        this.warehouseRepository = warehouseRepository;
+        this.productHistoryService = productHistoryService;
+        this.foldBatchSize = foldBatchSize;
+    }
+
+    public ProductStockResponse getStock(Long id) {
+        List<StockLevel> levels = stockRepository.findLevels(id);
+        if (levels.isEmpty() && !productRepository.existsById(id)) {
+            throw new ProductNotFoundException(id);
+        }
+        return new ProductStockResponse(id, stockRepository.findAvailable(id), levels);
+    }
+
+    @Transactional
+    public StockLevel adjustQuantity(Long id, String warehouse, int delta) {
+        if (delta >= 0 && !stockRepository.hasLocations(id)) {
+            stockRepository.lockProduct(id);
+        }
+        return stockRepository.adjust(id, warehouse, delta).orElseThrow(() -> rejected(id, warehouse));
+    }
+
+    @Transactional
+    public StockLevel adjustReserved(Long id, String warehouse, int delta) {
+        return stockRepository.reserve(id, warehouse, delta).orElseThrow(() -> rejected(id, warehouse));
+    }
+
+    @Transactional
+    public StockAllocationResponse allocate(Long id, int quantity) {
+        List<StockLocation> locations = new ArrayList<>(stockRepository.lockLocations(id));
+        if (locations.isEmpty() && !productRepository.existsById(id)) {
+            throw new ProductNotFoundException(id);
+        }
+        locations.sort(ALLOCATION_ORDER);
+
+        List<StockLocation> picked = new ArrayList<>();
+        int[] quantities = new int[locations.size()];
+        int remaining = quantity;
+        for (StockLocation location : locations) {
+            if (remaining == 0) {
+                break;
+            }
+            int take = Math.min(remaining, location.available());
+            quantities[picked.size()] = take;
+            picked.add(location);
+            remaining -= take;
+        }
+        if (remaining > 0) {
+            throw new InsufficientStockException(id, (long) quantity - remaining, quantity);
+        }
+
+        stockRepository.allocate(id, picked, quantities);
+        List<StockAllocation> allocations = new ArrayList<>(picked.size());
+        for (int i = 0; i < picked.size(); i++) {
+            allocations.add(new StockAllocation(picked.get(i).warehouse(), quantities[i]));
+        }
+        return new StockAllocationResponse(id, allocations);
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${shop.stock.fold-interval:PT1S}",
+            initialDelayString = "${shop.stock.fold-interval:PT1S}")
+    public void foldAvailability() {
+        List<ProductHistoryEntry> changed = stockRepository.foldDeltas(foldBatchSize);
+        changed.forEach(productHistoryService::record);
+        if (!changed.isEmpty()) {
+            log.debug("Folded stock deltas, quantity of {} products changed", changed.size());
+        }
+    }
+
+    private RuntimeException rejected(Long id, String warehouse) {
+        if (!productRepository.existsById(id)) {
+            return new ProductNotFoundException(id);
+        }
+        if (!warehouseRepository.existsByCode(warehouse)) {
+            return new WarehouseNotFoundException(warehouse);
+        }
+        return new InsufficientStockException(id, warehouse);
+    }
+}
@@ -0,0 +1,42 @@
+package com.cronox.shop.service;
+
+import com.cronox.shop.dto.PagedResponse;
+import com.cronox.shop.dto.WarehouseRequest;
+import com.cronox.shop.dto.WarehouseResponse;
+import com.cronox.shop.exception.DuplicateWarehouseException;
+import com.cronox.shop.mapper.WarehouseMapper;
+import com.cronox.shop.repository.WarehouseRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@Transactional(readOnly = true)
+public class WarehouseService {
+
+    private final WarehouseRepository warehouseRepository;
+    private final WarehouseMapper warehouseMapper;
+
+    public WarehouseService(WarehouseRepository warehouseRepository, WarehouseMapper warehouseMapper) {
+        this.warehouseRepository = warehouseRepository;
+        this.warehouseMapper = warehouseMapper;
+    }
+
+    public PagedResponse<WarehouseResponse> listWarehouses(int page, int size) {
+        Page<WarehouseResponse> warehousePage = warehouseRepository.findAll(
+                        PageRequest.of(page, size, Sort.by("priority", "code")))
+                .map(warehouseMapper::toResponse);
+        return new PagedResponse<>(warehousePage.getContent(), warehousePage.getNumber(), warehousePage.getSize(),
+                warehousePage.getTotalElements(), warehousePage.getTotalPages());
+    }
+
+    @Transactional
+    public WarehouseResponse createWarehouse(WarehouseRequest request) {
+        if (warehouseRepository.existsByCode(request.getCode())) {
+            throw new DuplicateWarehouseException(request.getCode());
+        }
+        return warehouseMapper.toResponse(warehouseRepository.save(warehouseMapper.toEntity(request)));
+    }
+}
@@ -0,0 +1,22 @@
+CREATE TABLE IF NOT EXISTS product_history (
+    product_id BIGINT NOT NULL,
+    sku VARCHAR(64) NOT NULL,
+    price_cents INTEGER NOT NULL,
+    quantity INTEGER NOT NULL,
+    recorded_at TIMESTAMPTZ NOT NULL
+) PARTITION BY RANGE (recorded_at);
+
+CREATE INDEX IF NOT EXISTS idx_product_history_sku_recorded_at ON product_history (sku, recorded_at);
+
+CREATE OR REPLACE FUNCTION ensure_product_history_partition(month_start DATE) RETURNS VOID AS $$
+BEGIN
+    EXECUTE format(
+        'CREATE TABLE IF NOT EXISTS %I PARTITION OF product_history FOR VALUES FROM (%L) TO (%L)',
+        'product_history_' || to_char(month_start, 'YYYY_MM'),
+        month_start::TIMESTAMP AT TIME ZONE 'UTC',
+        (month_start + INTERVAL '1 month')::TIMESTAMP AT TIME ZONE 'UTC');
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT ensure_product_history_partition((date_trunc('month', NOW() AT TIME ZONE 'UTC') + n * INTERVAL '1 month')::DATE)
+FROM generate_series(0, 2) AS n;
@@ -0,0 +1,19 @@
+CREATE TABLE IF NOT EXISTS categories (
+    id BIGSERIAL PRIMARY KEY,
+    slug VARCHAR(100) NOT NULL UNIQUE,
+    name VARCHAR(200) NOT NULL
+);
+
+-- The primary key leads with category_id so a category filter is an index-only scan over product ids;
+-- the reverse index serves loading a product's categories.
+CREATE TABLE IF NOT EXISTS product_categories (
+    category_id BIGINT NOT NULL REFERENCES categories (id) ON DELETE CASCADE,
+    product_id BIGINT NOT NULL REFERENCES products (id) ON DELETE CASCADE,
+    PRIMARY KEY (category_id, product_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_product_categories_product ON product_categories (product_id, category_id);
+
+-- Price range filters and listing order, with a smaller partial index for the in-stock storefront view.
+CREATE INDEX IF NOT EXISTS idx_products_price ON products (price_cents, id);
+CREATE INDEX IF NOT EXISTS idx_products_in_stock_price ON products (price_cents, id) WHERE quantity > 0;
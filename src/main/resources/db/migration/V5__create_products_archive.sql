@@ -0,0 +1,16 @@
+-- Deleted products are moved here instead of being kept in products, so listings, searches and the sku unique
+-- constraint only ever see live rows. The same sku may be archived more than once; category_ids keeps the
+-- product's category links for a restore.
+CREATE TABLE IF NOT EXISTS products_archive (
+    id BIGINT PRIMARY KEY,
+    sku VARCHAR(64) NOT NULL,
+    name VARCHAR(200) NOT NULL,
+    description TEXT,
+    price_cents INTEGER NOT NULL,
+    quantity INTEGER NOT NULL,
+    updated_at TIMESTAMPTZ NOT NULL,
+    category_ids BIGINT[] NOT NULL DEFAULT '{}',
+    archived_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_products_archive_sku ON products_archive (sku);
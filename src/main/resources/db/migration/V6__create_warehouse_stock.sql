@@ -0,0 +1,33 @@
+CREATE TABLE IF NOT EXISTS warehouses (
+    id BIGSERIAL PRIMARY KEY,
+    code VARCHAR(32) NOT NULL UNIQUE,
+    name VARCHAR(200) NOT NULL,
+    priority INTEGER NOT NULL DEFAULT 0
+);
+
+-- One row per product and location, so stock changes for a SKU spread over as many rows as it has locations.
+-- Adjustments and reservations are single conditional UPDATEs; allocations lock rows in warehouse_id order.
+CREATE TABLE IF NOT EXISTS product_stock (
+    product_id BIGINT NOT NULL REFERENCES products (id) ON DELETE CASCADE,
+    warehouse_id BIGINT NOT NULL REFERENCES warehouses (id) ON DELETE CASCADE,
+    quantity INTEGER NOT NULL DEFAULT 0 CHECK (quantity >= 0),
+    reserved INTEGER NOT NULL DEFAULT 0 CHECK (reserved >= 0 AND reserved <= quantity),
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (product_id, warehouse_id)
+);
+
+-- Every change to a location's available stock (quantity - reserved) appends a delta in the same transaction. A
+-- scheduled job folds committed deltas into product_availability, so concurrent writers never update a shared
+-- per-product row and reads never sum over locations.
+CREATE TABLE IF NOT EXISTS product_stock_deltas (
+    id BIGSERIAL PRIMARY KEY,
+    product_id BIGINT NOT NULL,
+    delta INTEGER NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_product_stock_deltas_product ON product_stock_deltas (product_id);
+
+CREATE TABLE IF NOT EXISTS product_availability (
+    product_id BIGINT PRIMARY KEY REFERENCES products (id) ON DELETE CASCADE,
+    available BIGINT NOT NULL DEFAULT 0
+);
@@ -0,0 +1,25 @@
+-- Catches history rows for months whose partition does not exist yet (e.g. after a missed maintenance run), so
+-- inserts keep succeeding instead of failing until an operator intervenes.
+CREATE TABLE IF NOT EXISTS product_history_default PARTITION OF product_history DEFAULT;
+
+-- A month can only be attached once the default partition holds none of its rows, so the partition is created
+-- detached, filled with the rows the default partition caught for that month, and then attached.
+CREATE OR REPLACE FUNCTION ensure_product_history_partition(month_start DATE) RETURNS VOID AS $$
+DECLARE
+    partition_name TEXT := 'product_history_' || to_char(month_start, 'YYYY_MM');
+    range_start TIMESTAMPTZ := month_start::TIMESTAMP AT TIME ZONE 'UTC';
+    range_end TIMESTAMPTZ := (month_start + INTERVAL '1 month')::TIMESTAMP AT TIME ZONE 'UTC';
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN;
+    END IF;
+    EXECUTE format('CREATE TABLE %I (LIKE product_history INCLUDING DEFAULTS INCLUDING CONSTRAINTS)',
+        partition_name);
+    EXECUTE format(
+        'WITH moved AS (DELETE FROM product_history_default WHERE recorded_at >= %L AND recorded_at < %L '
+            || 'RETURNING *) INSERT INTO %I SELECT * FROM moved',
+        range_start, range_end, partition_name);
+    EXECUTE format('ALTER TABLE product_history ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+        partition_name, range_start, range_end);
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,3 @@
+-- product_stock and product_availability rows cascade away when a product is archived, so the archive keeps the
+-- product's locations (warehouse_id, quantity, reserved) as a JSON array for a restore.
+ALTER TABLE products_archive ADD COLUMN IF NOT EXISTS stock JSONB NOT NULL DEFAULT '[]';
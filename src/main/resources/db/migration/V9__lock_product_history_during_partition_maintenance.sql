@@ -0,0 +1,27 @@
+-- Rows for the month could reach the default partition between the move and the ATTACH, which then fails. Holding
+-- SHARE ROW EXCLUSIVE on the parent for the whole call makes inserts wait before they are routed, so they land in the
+-- new partition once it is attached, and serializes concurrent maintenance runs. Locking only the default partition
+-- is not enough: an insert waiting on it has already been routed there and fails after the ATTACH.
+CREATE OR REPLACE FUNCTION ensure_product_history_partition(month_start DATE) RETURNS VOID AS $$
+DECLARE
+    partition_name TEXT := 'product_history_' || to_char(month_start, 'YYYY_MM');
+    range_start TIMESTAMPTZ := month_start::TIMESTAMP AT TIME ZONE 'UTC';
+    range_end TIMESTAMPTZ := (month_start + INTERVAL '1 month')::TIMESTAMP AT TIME ZONE 'UTC';
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN;
+    END IF;
+    LOCK TABLE ONLY product_history IN SHARE ROW EXCLUSIVE MODE;
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN;
+    END IF;
+    EXECUTE format('CREATE TABLE %I (LIKE product_history INCLUDING DEFAULTS INCLUDING CONSTRAINTS)',
+        partition_name);
+    EXECUTE format(
+        'WITH moved AS (DELETE FROM product_history_default WHERE recorded_at >= %L AND recorded_at < %L '
+            || 'RETURNING *) INSERT INTO %I SELECT * FROM moved',
+        range_start, range_end, partition_name);
+    EXECUTE format('ALTER TABLE product_history ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+        partition_name, range_start, range_end);
+END;
+$$ LANGUAGE plpgsql;
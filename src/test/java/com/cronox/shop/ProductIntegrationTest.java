@@ -1,16 +1,46 @@
 package com.cronox.shop;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import com.cronox.shop.config.ReactiveServer;
 import com.cronox.shop.dto.ApiError;
+import com.cronox.shop.dto.CategoryRequest;
+import com.cronox.shop.dto.CategoryResponse;
 import com.cronox.shop.dto.PagedResponse;
+import com.cronox.shop.dto.ProductBatchResponse;
+import com.cronox.shop.dto.ProductCategoriesRequest;
+import com.cronox.shop.dto.ProductFacetsResponse;
+import com.cronox.shop.dto.ProductHistoryPoint;
 import com.cronox.shop.dto.ProductRequest;
 import com.cronox.shop.dto.ProductResponse;
+import com.cronox.shop.dto.ProductStockResponse;
 import com.cronox.shop.dto.QuantityAdjustmentRequest;
+import com.cronox.shop.dto.StockAllocation;
+import com.cronox.shop.dto.StockAllocationRequest;
+import com.cronox.shop.dto.StockAllocationResponse;
+import com.cronox.shop.dto.StockLevel;
+import com.cronox.shop.dto.WarehouseRequest;
+import com.cronox.shop.dto.WarehouseResponse;
+import com.cronox.shop.repository.CategoryRepository;
+import com.cronox.shop.repository.IdempotencyKeyRepository;
 import com.cronox.shop.repository.ProductRepository;
+import com.cronox.shop.service.IdempotencyService;
+import com.cronox.shop.service.ProductHistoryService;
+import com.cronox.shop.service.StockService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -30,9 +60,11 @@ import org.springframework.http.RequestEntity;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
@@ -70,12 +102,40 @@ class ProductIntegrationTest {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductHistoryService productHistoryService;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReactiveServer reactiveServer;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @LocalServerPort
     private int port;
 
     @BeforeEach
     void setUp() {
         productRepository.deleteAll();
+        categoryRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM products_archive");
+        jdbcTemplate.update("DELETE FROM product_stock_deltas");
+        jdbcTemplate.update("DELETE FROM warehouses");
     }
 
     @Test
@@ -92,6 +152,48 @@ class ProductIntegrationTest {
         assertThat(Objects.requireNonNull(getResponse.getBody()).getSku()).isEqualTo("SKU-1");
     }
 
+    @Test
+    void shouldServeReactiveReadsMatchingTheBlockingApi() throws Exception {
+        createCategory("lamps", "Lamps");
+        Long desk = createProduct("SKU-70", "Desk Lamp", 3500, 4);
+        Long floor = createProduct("SKU-71", "Floor Lamp", 9000, 0);
+        createProduct("SKU-72", "Desk Chair", 12000, 2);
+        assignCategories(desk, List.of("lamps"));
+        assignCategories(floor, List.of("lamps"));
+
+        ResponseEntity<ProductResponse> v1 = restTemplate.getForEntity(baseUrl("/api/products/" + desk),
+                ProductResponse.class);
+        ResponseEntity<ProductResponse> v2 = restTemplate.getForEntity(reactiveUrl("/api/v2/products/" + desk),
+                ProductResponse.class);
+        assertEquals(200, v2.getStatusCode().value());
+        assertThat(v2.getBody()).usingRecursiveComparison().isEqualTo(v1.getBody());
+
+        ResponseEntity<ApiError> missing = restTemplate.getForEntity(reactiveUrl("/api/v2/products/999999"),
+                ApiError.class);
+        assertEquals(404, missing.getStatusCode().value());
+
+        ResponseEntity<PagedResponse<ProductResponse>> page = restTemplate.exchange(
+                reactiveUrl("/api/v2/products?category=lamps&inStock=true&size=10"), HttpMethod.GET, null,
+                new ParameterizedTypeReference<PagedResponse<ProductResponse>>() {
+                });
+        assertEquals(200, page.getStatusCode().value());
+        assertThat(Objects.requireNonNull(page.getBody()).getContent()).extracting(ProductResponse::getSku)
+                .containsExactly("SKU-70");
+        assertThat(page.getBody().getTotalElements()).isEqualTo(1);
+
+        ResponseEntity<String> stream = restTemplate.exchange(RequestEntity.get(
+                        URI.create(reactiveUrl("/api/v2/products/stream?name=lamp")))
+                .accept(MediaType.APPLICATION_NDJSON).build(), String.class);
+        assertEquals(200, stream.getStatusCode().value());
+        List<String> skus = new ArrayList<>();
+        for (String line : Objects.requireNonNull(stream.getBody()).split("\n")) {
+            if (!line.isBlank()) {
+                skus.add(objectMapper.readValue(line, ProductResponse.class).getSku());
+            }
+        }
+        assertThat(skus).containsExactly("SKU-70", "SKU-71");
+    }
+
     @Test
     void shouldListWithPaginationAndFilters() {
         restTemplate.postForEntity(baseUrl("/api/products"), buildProductRequest("SKU-10", "Red Shirt", 2500, 5),
@@ -119,6 +221,64 @@ class ProductIntegrationTest {
                 .containsExactly("SKU-11");
     }
 
+    @Test
+    void shouldFilterByCategoryPriceAndStockAndCountFacets() {
+        createCategory("shoes", "Shoes");
+        createCategory("sale", "Sale");
+        Long boots = createProduct("SKU-60", "Boots", 8000, 2);
+        Long sandals = createProduct("SKU-61", "Sandals", 3000, 0);
+        Long shirt = createProduct("SKU-62", "Shirt", 2000, 4);
+        assignCategories(boots, List.of("shoes", "sale"));
+        assignCategories(sandals, List.of("shoes"));
+        ResponseEntity<ProductResponse> assigned = assignCategories(shirt, List.of("sale"));
+        assertThat(Objects.requireNonNull(assigned.getBody()).getCategories()).containsExactly("sale");
+
+        ResponseEntity<PagedResponse<ProductResponse>> response = restTemplate.exchange(
+                baseUrl("/api/products?category=shoes&category=sale&minPrice=2500&inStock=true"), HttpMethod.GET,
+                null, new ParameterizedTypeReference<PagedResponse<ProductResponse>>() {
+                });
+        assertEquals(200, response.getStatusCode().value());
+        assertThat(Objects.requireNonNull(response.getBody()).getContent()).extracting(ProductResponse::getSku)
+                .containsExactly("SKU-60");
+
+        ResponseEntity<ProductFacetsResponse> facets = restTemplate.getForEntity(
+                baseUrl("/api/products/facets?category=shoes&inStock=true"), ProductFacetsResponse.class);
+        assertEquals(200, facets.getStatusCode().value());
+        assertThat(Objects.requireNonNull(facets.getBody()).getCategories())
+                .extracting(facet -> facet.getSlug() + "=" + facet.getCount())
+                .containsExactly("sale=2", "shoes=1");
+
+        ResponseEntity<ApiError> unknown = restTemplate.exchange(RequestEntity.put(
+                        URI.create(baseUrl("/api/products/" + shirt + "/categories")))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(categoriesRequest(List.of("sale", "hats"))), ApiError.class);
+        assertEquals(422, unknown.getStatusCode().value());
+        assertThat(Objects.requireNonNull(unknown.getBody()).getMessage()).isEqualTo("Unknown categories: hats");
+    }
+
+    @Test
+    void shouldResolveBatchIdsThenSkusOnceEachAndReportMissingKeys() {
+        Long first = Objects.requireNonNull(restTemplate.postForEntity(baseUrl("/api/products"),
+                buildProductRequest("SKU-50", "Keyboard", 4500, 3), ProductResponse.class).getBody()).getId();
+        Long second = Objects.requireNonNull(restTemplate.postForEntity(baseUrl("/api/products"),
+                buildProductRequest("SKU-51", "Monitor", 19900, 1), ProductResponse.class).getBody()).getId();
+
+        ResponseEntity<ProductBatchResponse> response = restTemplate.getForEntity(
+                baseUrl("/api/products/batch?ids=" + second + "," + first + ",999999&skus=SKU-51,SKU-MISSING"),
+                ProductBatchResponse.class);
+
+        assertEquals(200, response.getStatusCode().value());
+        ProductBatchResponse body = Objects.requireNonNull(response.getBody());
+        assertThat(body.getContent()).extracting(ProductResponse::getSku)
+                .containsExactly("SKU-51", "SKU-50");
+        assertThat(body.getMissingIds()).containsExactly(999999L);
+        assertThat(body.getMissingSkus()).containsExactly("SKU-MISSING");
+
+        ResponseEntity<ApiError> emptyResponse = restTemplate.getForEntity(baseUrl("/api/products/batch"),
+                ApiError.class);
+        assertEquals(400, emptyResponse.getStatusCode().value());
+    }
+
     @Test
     void shouldRejectDuplicateSku() {
         ProductRequest request = buildProductRequest("SKU-20", "Hat", 1800, 2);
@@ -148,6 +308,123 @@ class ProductIntegrationTest {
         assertThat(Objects.requireNonNull(patchResponse.getBody()).getQuantity()).isEqualTo(3);
     }
 
+    @Test
+    void shouldApplyConcurrentRetriesWithSameIdempotencyKeyOnce() throws Exception {
+        ResponseEntity<ProductResponse> createResponse = restTemplate.postForEntity(baseUrl("/api/products"),
+                buildProductRequest("SKU-70", "Chair", 9000, 10), ProductResponse.class);
+        Long id = Objects.requireNonNull(createResponse.getBody()).getId();
+
+        QuantityAdjustmentRequest adjustmentRequest = new QuantityAdjustmentRequest();
+        adjustmentRequest.setDelta(-3);
+        RequestEntity<QuantityAdjustmentRequest> patchRequest = RequestEntity
+                .patch(URI.create(baseUrl("/api/products/" + id + "/adjust-quantity")))
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Idempotency-Key", "retry-70")
+                .body(adjustmentRequest);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<ResponseEntity<ProductResponse>>> responses = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                responses.add(executor.submit(() -> restTemplate.exchange(patchRequest, ProductResponse.class)));
+            }
+            for (Future<ResponseEntity<ProductResponse>> response : responses) {
+                ResponseEntity<ProductResponse> result = response.get(30, TimeUnit.SECONDS);
+                assertEquals(200, result.getStatusCode().value());
+                assertThat(Objects.requireNonNull(result.getBody()).getQuantity()).isEqualTo(7);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        ResponseEntity<ProductResponse> getResponse = restTemplate.getForEntity(baseUrl("/api/products/" + id),
+                ProductResponse.class);
+        assertThat(Objects.requireNonNull(getResponse.getBody()).getQuantity()).isEqualTo(7);
+    }
+
+    @Test
+    void shouldReplayCreateForRetriedIdempotencyKey() {
+        ProductRequest request = buildProductRequest("SKU-71", "Desk", 15000, 2);
+        RequestEntity<ProductRequest> postRequest = RequestEntity.post(URI.create(baseUrl("/api/products")))
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Idempotency-Key", "create-71")
+                .body(request);
+
+        ResponseEntity<ProductResponse> first = restTemplate.exchange(postRequest, ProductResponse.class);
+        ResponseEntity<ProductResponse> retry = restTemplate.exchange(postRequest, ProductResponse.class);
+
+        assertEquals(201, first.getStatusCode().value());
+        assertEquals(201, retry.getStatusCode().value());
+        assertThat(retry.getHeaders().getFirst("Idempotent-Replayed")).isEqualTo("true");
+        assertThat(Objects.requireNonNull(retry.getBody()).getId())
+                .isEqualTo(Objects.requireNonNull(first.getBody()).getId());
+        assertThat(productRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotReexecuteCallOfAnotherPodWhoseLockExpired() throws Exception {
+        Long id = Objects.requireNonNull(restTemplate.postForEntity(baseUrl("/api/products"),
+                buildProductRequest("SKU-72", "Shelf", 6000, 10), ProductResponse.class).getBody()).getId();
+        IdempotencyService slowPod = new IdempotencyService(idempotencyKeyRepository, objectMapper, transactionManager,
+                Duration.ofHours(1), Duration.ofMillis(50), Duration.ofSeconds(5), 100);
+        IdempotencyService otherPod = new IdempotencyService(idempotencyKeyRepository, objectMapper, transactionManager,
+                Duration.ofHours(1), Duration.ofMillis(50), Duration.ofSeconds(5), 100);
+        QuantityAdjustmentRequest request = new QuantityAdjustmentRequest();
+        request.setDelta(-1);
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch claimed = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<ResponseEntity<String>> first = executor.submit(() -> slowPod.execute("slow-72", "PATCH /72",
+                    request, String.class, () -> {
+                        executions.incrementAndGet();
+                        jdbcTemplate.update("UPDATE products SET quantity = quantity - 1 WHERE id = ?", id);
+                        claimed.countDown();
+                        sleep(500);
+                        return ResponseEntity.ok("quantity-9");
+                    }));
+            assertThat(claimed.await(5, TimeUnit.SECONDS)).isTrue();
+
+            ResponseEntity<String> retry = otherPod.execute("slow-72", "PATCH /72", request, String.class, () -> {
+                executions.incrementAndGet();
+                jdbcTemplate.update("UPDATE products SET quantity = quantity - 1 WHERE id = ?", id);
+                return ResponseEntity.ok("quantity-8");
+            });
+
+            assertThat(first.get(5, TimeUnit.SECONDS).getBody()).isEqualTo("quantity-9");
+            assertThat(retry.getBody()).isEqualTo("quantity-9");
+            assertThat(retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(executions).hasValue(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT quantity FROM products WHERE id = ?", Integer.class, id))
+                .isEqualTo(9);
+    }
+
+    @Test
+    void shouldRecordPriceAndStockHistoryInDailyBuckets() {
+        ResponseEntity<ProductResponse> createResponse = restTemplate.postForEntity(baseUrl("/api/products"),
+                buildProductRequest("SKU-60", "Lamp", 3000, 10), ProductResponse.class);
+        Long id = Objects.requireNonNull(createResponse.getBody()).getId();
+        restTemplate.put(baseUrl("/api/products/" + id), buildProductRequest("SKU-60", "Lamp", 2500, 10));
+        productHistoryService.flush();
+
+        ResponseEntity<List<ProductHistoryPoint>> response = restTemplate.exchange(
+                baseUrl("/api/products/by-sku/SKU-60/history?bucket=DAY"), HttpMethod.GET, null,
+                new ParameterizedTypeReference<List<ProductHistoryPoint>>() {
+                });
+
+        assertEquals(200, response.getStatusCode().value());
+        List<ProductHistoryPoint> points = Objects.requireNonNull(response.getBody());
+        assertThat(points).hasSize(1);
+        assertThat(points.get(0).getSamples()).isEqualTo(2);
+        assertThat(points.get(0).getMinPriceCents()).isEqualTo(2500);
+        assertThat(points.get(0).getMaxPriceCents()).isEqualTo(3000);
+        assertThat(points.get(0).getClosePriceCents()).isEqualTo(2500);
+    }
+
     @Test
     void shouldDeleteProduct() {
         ResponseEntity<ProductResponse> createResponse = restTemplate.postForEntity(baseUrl("/api/products"),
@@ -161,6 +438,169 @@ class ProductIntegrationTest {
         assertEquals(404, getResponse.getStatusCode().value());
     }
 
+    @Test
+    void shouldArchiveAndRestoreProduct() {
+        createCategory("mice", "Mice");
+        Long id = createProduct("SKU-41", "Wireless Mouse", 5000, 15);
+        assignCategories(id, List.of("mice"));
+
+        restTemplate.delete(baseUrl("/api/products/" + id));
+
+        ResponseEntity<PagedResponse<ProductResponse>> list = restTemplate.exchange(
+                baseUrl("/api/products?name=mouse"), HttpMethod.GET, null,
+                new ParameterizedTypeReference<PagedResponse<ProductResponse>>() {
+                });
+        assertThat(Objects.requireNonNull(list.getBody()).getContent()).isEmpty();
+
+        Long replacement = createProduct("SKU-41", "Replacement Mouse", 4500, 3);
+        ResponseEntity<ApiError> conflict = restTemplate.postForEntity(
+                baseUrl("/api/products/" + id + "/restore"), null, ApiError.class);
+        assertEquals(422, conflict.getStatusCode().value());
+        ResponseEntity<ApiError> live = restTemplate.postForEntity(
+                baseUrl("/api/products/" + replacement + "/restore"), null, ApiError.class);
+        assertEquals(409, live.getStatusCode().value());
+        assertThat(Objects.requireNonNull(live.getBody()).getMessage())
+                .isEqualTo("Product " + replacement + " is not archived");
+
+        restTemplate.delete(baseUrl("/api/products/" + replacement));
+        ResponseEntity<ProductResponse> restored = restTemplate.postForEntity(
+                baseUrl("/api/products/" + id + "/restore"), null, ProductResponse.class);
+        assertEquals(200, restored.getStatusCode().value());
+        ProductResponse product = Objects.requireNonNull(restored.getBody());
+        assertThat(product.getId()).isEqualTo(id);
+        assertThat(product.getName()).isEqualTo("Wireless Mouse");
+        assertThat(product.getCategories()).containsExactly("mice");
+        productHistoryService.flush();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM product_history WHERE product_id = ?",
+                Integer.class, id)).isEqualTo(2);
+
+        ResponseEntity<ApiError> missing = restTemplate.postForEntity(baseUrl("/api/products/999999/restore"),
+                null, ApiError.class);
+        assertEquals(404, missing.getStatusCode().value());
+    }
+
+    @Test
+    void shouldRestoreStockOfAnArchivedProduct() {
+        createWarehouse("north", 1);
+        createWarehouse("south", 0);
+        Long id = createProduct("SKU-42", "Keyboard", 7000, 0);
+        adjustStock(id, "north", "adjust-quantity", 10);
+        adjustStock(id, "north", "adjust-reserved", 3);
+        adjustStock(id, "south", "adjust-quantity", 4);
+        stockService.foldAvailability();
+        adjustStock(id, "south", "adjust-quantity", -1);
+
+        restTemplate.delete(baseUrl("/api/products/" + id));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM product_stock_deltas WHERE product_id = ?",
+                Long.class, id)).isZero();
+        assertEquals(404, restTemplate.getForEntity(baseUrl("/api/products/" + id + "/stock"), ApiError.class)
+                .getStatusCode().value());
+
+        ResponseEntity<ProductResponse> restored = restTemplate.postForEntity(
+                baseUrl("/api/products/" + id + "/restore"), null, ProductResponse.class);
+        assertEquals(200, restored.getStatusCode().value());
+        stockService.foldAvailability();
+
+        ResponseEntity<ProductStockResponse> stock = restTemplate.getForEntity(
+                baseUrl("/api/products/" + id + "/stock"), ProductStockResponse.class);
+        ProductStockResponse body = Objects.requireNonNull(stock.getBody());
+        assertThat(body.getAvailable()).isEqualTo(10);
+        assertThat(body.getLocations()).extracting(StockLevel::getWarehouse, StockLevel::getQuantity,
+                StockLevel::getReserved).containsExactly(tuple("south", 3, 0), tuple("north", 10, 3));
+        assertEquals(200, adjustStock(id, "north", "adjust-reserved", -3).getStatusCode().value());
+    }
+
+    @Test
+    void shouldKeepStockPerWarehouseConsistentUnderConcurrentAdjustments() throws Exception {
+        createWarehouse("north", 1);
+        createWarehouse("south", 0);
+        Long id = createProduct("SKU-80", "Lamp", 4000, 0);
+        assertEquals(200, adjustStock(id, "north", "adjust-quantity", 10).getStatusCode().value());
+        assertEquals(200, adjustStock(id, "south", "adjust-quantity", 4).getStatusCode().value());
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<ResponseEntity<StockLevel>>> responses = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                responses.add(executor.submit(() -> adjustStock(id, "north", "adjust-quantity", -1)));
+            }
+            int succeeded = 0;
+            for (Future<ResponseEntity<StockLevel>> response : responses) {
+                int status = response.get(30, TimeUnit.SECONDS).getStatusCode().value();
+                assertThat(status).isIn(200, 422);
+                succeeded += status == 200 ? 1 : 0;
+            }
+            assertThat(succeeded).isEqualTo(10);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(200, adjustStock(id, "north", "adjust-quantity", 6).getStatusCode().value());
+        assertEquals(200, adjustStock(id, "north", "adjust-reserved", 2).getStatusCode().value());
+        assertEquals(422, adjustStock(id, "north", "adjust-quantity", -5).getStatusCode().value());
+        assertEquals(404, adjustStock(id, "west", "adjust-quantity", 1).getStatusCode().value());
+
+        StockAllocationRequest allocationRequest = new StockAllocationRequest();
+        allocationRequest.setQuantity(7);
+        ResponseEntity<StockAllocationResponse> allocation = restTemplate.postForEntity(
+                baseUrl("/api/products/" + id + "/stock/allocate"), allocationRequest, StockAllocationResponse.class);
+        assertEquals(200, allocation.getStatusCode().value());
+        assertThat(Objects.requireNonNull(allocation.getBody()).getAllocations())
+                .extracting(StockAllocation::getWarehouse, StockAllocation::getQuantity)
+                .containsExactly(tuple("south", 4), tuple("north", 3));
+
+        allocationRequest.setQuantity(2);
+        ResponseEntity<ApiError> shortage = restTemplate.postForEntity(
+                baseUrl("/api/products/" + id + "/stock/allocate"), allocationRequest, ApiError.class);
+        assertEquals(422, shortage.getStatusCode().value());
+
+        stockService.foldAvailability();
+        ResponseEntity<ProductStockResponse> stock = restTemplate.getForEntity(
+                baseUrl("/api/products/" + id + "/stock"), ProductStockResponse.class);
+        ProductStockResponse body = Objects.requireNonNull(stock.getBody());
+        assertThat(body.getAvailable()).isEqualTo(1);
+        assertThat(body.getLocations()).extracting(StockLevel::getWarehouse, StockLevel::getQuantity,
+                StockLevel::getReserved).containsExactly(tuple("south", 4, 4), tuple("north", 6, 5));
+    }
+
+    @Test
+    void shouldMirrorUnreservedWarehouseStockInProductQuantity() {
+        createWarehouse("north", 0);
+        Long id = createProduct("SKU-81", "Desk Fan", 3000, 0);
+        adjustStock(id, "north", "adjust-quantity", 6);
+        adjustStock(id, "north", "adjust-reserved", 2);
+        stockService.foldAvailability();
+
+        ProductResponse product = restTemplate.getForObject(baseUrl("/api/products/" + id), ProductResponse.class);
+        assertThat(product.getQuantity()).isEqualTo(4);
+        ResponseEntity<PagedResponse<ProductResponse>> inStock = restTemplate.exchange(
+                baseUrl("/api/products?name=fan&inStock=true"), HttpMethod.GET, null,
+                new ParameterizedTypeReference<PagedResponse<ProductResponse>>() {
+                });
+        assertThat(Objects.requireNonNull(inStock.getBody()).getContent()).extracting(ProductResponse::getId)
+                .containsExactly(id);
+
+        adjustStock(id, "north", "adjust-reserved", 4);
+        stockService.foldAvailability();
+        inStock = restTemplate.exchange(baseUrl("/api/products?name=fan&inStock=true"), HttpMethod.GET, null,
+                new ParameterizedTypeReference<PagedResponse<ProductResponse>>() {
+                });
+        assertThat(Objects.requireNonNull(inStock.getBody()).getContent()).isEmpty();
+
+        restTemplate.put(baseUrl("/api/products/" + id), buildProductRequest("SKU-81", "Desk Fan", 2800, 99));
+        product = restTemplate.getForObject(baseUrl("/api/products/" + id), ProductResponse.class);
+        assertThat(product.getPriceCents()).isEqualTo(2800);
+        assertThat(product.getQuantity()).isZero();
+
+        QuantityAdjustmentRequest adjustmentRequest = new QuantityAdjustmentRequest();
+        adjustmentRequest.setDelta(5);
+        ResponseEntity<ApiError> rejected = restTemplate.exchange(RequestEntity
+                .patch(URI.create(baseUrl("/api/products/" + id + "/adjust-quantity")))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(adjustmentRequest), ApiError.class);
+        assertEquals(422, rejected.getStatusCode().value());
+    }
+
     private ProductRequest buildProductRequest(String sku, String name, int priceCents, int quantity) {
         ProductRequest request = new ProductRequest();
         request.setSku(sku);
@@ -171,7 +611,65 @@ class ProductIntegrationTest {
         return request;
     }
 
+    private Long createProduct(String sku, String name, int priceCents, int quantity) {
+        return Objects.requireNonNull(restTemplate.postForEntity(baseUrl("/api/products"),
+                buildProductRequest(sku, name, priceCents, quantity), ProductResponse.class).getBody()).getId();
+    }
+
+    private void createWarehouse(String code, int priority) {
+        WarehouseRequest request = new WarehouseRequest();
+        request.setCode(code);
+        request.setName(code + " warehouse");
+        request.setPriority(priority);
+        ResponseEntity<WarehouseResponse> response = restTemplate.postForEntity(baseUrl("/api/warehouses"), request,
+                WarehouseResponse.class);
+        assertEquals(201, response.getStatusCode().value());
+    }
+
+    private ResponseEntity<StockLevel> adjustStock(Long productId, String warehouse, String operation, int delta) {
+        QuantityAdjustmentRequest request = new QuantityAdjustmentRequest();
+        request.setDelta(delta);
+        URI uri = URI.create(baseUrl("/api/products/" + productId + "/stock/" + warehouse + "/" + operation));
+        return restTemplate.exchange(RequestEntity.patch(uri)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(request), StockLevel.class);
+    }
+
+    private void createCategory(String slug, String name) {
+        CategoryRequest request = new CategoryRequest();
+        request.setSlug(slug);
+        request.setName(name);
+        ResponseEntity<CategoryResponse> response = restTemplate.postForEntity(baseUrl("/api/categories"), request,
+                CategoryResponse.class);
+        assertEquals(201, response.getStatusCode().value());
+    }
+
+    private ResponseEntity<ProductResponse> assignCategories(Long productId, List<String> slugs) {
+        URI uri = URI.create(baseUrl("/api/products/" + productId + "/categories"));
+        return restTemplate.exchange(RequestEntity.put(uri)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(categoriesRequest(slugs)), ProductResponse.class);
+    }
+
+    private ProductCategoriesRequest categoriesRequest(List<String> slugs) {
+        ProductCategoriesRequest request = new ProductCategoriesRequest();
+        request.setSlugs(slugs);
+        return request;
+    }
+
     private String baseUrl(String path) {
         return "http://localhost:" + port + path;
     }
+
+    private String reactiveUrl(String path) {
+        return "http://localhost:" + reactiveServer.getPort() + path;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
@@ -0,0 +1,261 @@
+package com.cronox.shop;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.cronox.shop.dto.ProductRequest;
+import com.cronox.shop.dto.ProductResponse;
+import com.cronox.shop.dto.ProductStockResponse;
+import com.cronox.shop.dto.QuantityAdjustmentRequest;
+import com.cronox.shop.dto.StockAllocation;
+import com.cronox.shop.dto.StockAllocationRequest;
+import com.cronox.shop.dto.StockAllocationResponse;
+import com.cronox.shop.dto.StockLevel;
+import com.cronox.shop.dto.WarehouseRequest;
+import com.cronox.shop.dto.WarehouseResponse;
+import com.cronox.shop.repository.ProductRepository;
+import com.cronox.shop.service.StockService;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Testcontainers
+@EnabledIfEnvironmentVariable(named = "ENABLE_TESTCONTAINERS", matches = "(?i)true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class StockIntegrationTest {
+
+    @TestConfiguration
+    static class PatchSupport {
+
+        @Bean
+        RestTemplateBuilder restTemplateBuilder() {
+            return new RestTemplateBuilder()
+                    .requestFactory((Supplier<ClientHttpRequestFactory>) HttpComponentsClientHttpRequestFactory::new);
+        }
+    }
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16.2-alpine");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @LocalServerPort
+    private int port;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM products_archive");
+        jdbcTemplate.update("DELETE FROM product_stock_deltas");
+        jdbcTemplate.update("DELETE FROM warehouses");
+    }
+
+    @Test
+    void shouldNeverOversellUnderConcurrentAllocations() throws Exception {
+        createWarehouse("north", 0);
+        createWarehouse("south", 1);
+        createWarehouse("east", 1);
+        Long id = createProduct("SKU-90", "Standing Desk", 0);
+        adjustStock(id, "north", "adjust-quantity", 20);
+        adjustStock(id, "south", "adjust-quantity", 15);
+        adjustStock(id, "south", "adjust-reserved", 3);
+        adjustStock(id, "east", "adjust-quantity", 5);
+        int available = 37;
+
+        int requests = 32;
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Integer> requested = new ArrayList<>();
+        List<Future<ResponseEntity<StockAllocationResponse>>> responses = new ArrayList<>();
+        try {
+            for (int i = 0; i < requests; i++) {
+                int quantity = i % 4 + 1;
+                requested.add(quantity);
+                responses.add(executor.submit(() -> {
+                    start.await();
+                    return allocate(id, quantity);
+                }));
+            }
+            start.countDown();
+
+            int allocated = 0;
+            int rejected = 0;
+            for (int i = 0; i < requests; i++) {
+                ResponseEntity<StockAllocationResponse> response = responses.get(i).get(30, TimeUnit.SECONDS);
+                int status = response.getStatusCode().value();
+                assertThat(status).isIn(200, 422);
+                if (status == 200) {
+                    int units = Objects.requireNonNull(response.getBody()).getAllocations().stream()
+                            .mapToInt(StockAllocation::getQuantity).sum();
+                    assertThat(units).isEqualTo(requested.get(i));
+                    allocated += units;
+                } else {
+                    rejected++;
+                }
+            }
+            assertThat(allocated).isLessThanOrEqualTo(available);
+            assertThat(rejected).isPositive();
+
+            stockService.foldAvailability();
+            ProductStockResponse stock = restTemplate.getForObject(baseUrl("/api/products/" + id + "/stock"),
+                    ProductStockResponse.class);
+            assertThat(stock.getAvailable()).isEqualTo(available - allocated);
+            assertThat(stock.getLocations()).allSatisfy(level ->
+                    assertThat(level.getReserved()).isBetween(0, level.getQuantity()));
+            assertThat(stock.getLocations().stream().mapToInt(StockLevel::getReserved).sum())
+                    .isEqualTo(3 + allocated);
+            assertThat(jdbcTemplate.queryForObject("SELECT available FROM product_availability WHERE product_id = ?",
+                    Long.class, id)).isEqualTo(available - allocated);
+            assertThat(restTemplate.getForObject(baseUrl("/api/products/" + id), ProductResponse.class)
+                    .getQuantity()).isEqualTo(available - allocated);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldKeepProductQuantityOnFirstWarehouseReceipt() {
+        createWarehouse("north", 0);
+        createWarehouse("south", 1);
+        Long id = createProduct("SKU-91", "Monitor Arm", 10);
+        adjustStock(id, "north", "adjust-quantity", 5);
+        adjustStock(id, "south", "adjust-quantity", 3);
+        stockService.foldAvailability();
+
+        ProductStockResponse stock = restTemplate.getForObject(baseUrl("/api/products/" + id + "/stock"),
+                ProductStockResponse.class);
+        assertThat(stock.getAvailable()).isEqualTo(18);
+        assertThat(stock.getLocations()).extracting(StockLevel::getWarehouse, StockLevel::getQuantity)
+                .containsExactly(tuple("north", 15), tuple("south", 3));
+        assertThat(restTemplate.getForObject(baseUrl("/api/products/" + id), ProductResponse.class)
+                .getQuantity()).isEqualTo(18);
+    }
+
+    @Test
+    void shouldSeedProductQuantityOnceWhenFirstReceiptsRace() throws Exception {
+        List<String> warehouses = List.of("north", "south", "east", "west");
+        for (String warehouse : warehouses) {
+            createWarehouse(warehouse, 0);
+        }
+        Long id = createProduct("SKU-92", "Cable Tray", 7);
+
+        ExecutorService executor = Executors.newFixedThreadPool(warehouses.size());
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> receipts = new ArrayList<>();
+            for (String warehouse : warehouses) {
+                receipts.add(executor.submit(() -> {
+                    start.await();
+                    adjustStock(id, warehouse, "adjust-quantity", 1);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> receipt : receipts) {
+                receipt.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        stockService.foldAvailability();
+        ProductStockResponse stock = restTemplate.getForObject(baseUrl("/api/products/" + id + "/stock"),
+                ProductStockResponse.class);
+        assertThat(stock.getAvailable()).isEqualTo(11);
+        assertThat(stock.getLocations().stream().mapToInt(StockLevel::getQuantity).sum()).isEqualTo(11);
+        assertThat(restTemplate.getForObject(baseUrl("/api/products/" + id), ProductResponse.class)
+                .getQuantity()).isEqualTo(11);
+    }
+
+    private ResponseEntity<StockAllocationResponse> allocate(Long productId, int quantity) {
+        StockAllocationRequest request = new StockAllocationRequest();
+        request.setQuantity(quantity);
+        return restTemplate.postForEntity(baseUrl("/api/products/" + productId + "/stock/allocate"), request,
+                StockAllocationResponse.class);
+    }
+
+    private Long createProduct(String sku, String name, int quantity) {
+        ProductRequest request = new ProductRequest();
+        request.setSku(sku);
+        request.setName(name);
+        request.setDescription(name + " description");
+        request.setPriceCents(25000);
+        request.setQuantity(quantity);
+        return Objects.requireNonNull(restTemplate.postForEntity(baseUrl("/api/products"), request,
+                ProductResponse.class).getBody()).getId();
+    }
+
+    private void createWarehouse(String code, int priority) {
+        WarehouseRequest request = new WarehouseRequest();
+        request.setCode(code);
+        request.setName(code + " warehouse");
+        request.setPriority(priority);
+        ResponseEntity<WarehouseResponse> response = restTemplate.postForEntity(baseUrl("/api/warehouses"), request,
+                WarehouseResponse.class);
+        assertEquals(201, response.getStatusCode().value());
+    }
+
+    private void adjustStock(Long productId, String warehouse, String operation, int delta) {
+        QuantityAdjustmentRequest request = new QuantityAdjustmentRequest();
+        request.setDelta(delta);
+        URI uri = URI.create(baseUrl("/api/products/" + productId + "/stock/" + warehouse + "/" + operation));
+        ResponseEntity<StockLevel> response = restTemplate.exchange(RequestEntity.patch(uri)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(request), StockLevel.class);
+        assertEquals(200, response.getStatusCode().value());
+    }
+
+    private String baseUrl(String path) {
+        return "http://localhost:" + port + path;
+    }
+}
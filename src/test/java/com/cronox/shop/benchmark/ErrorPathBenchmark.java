@@ -0,0 +1,99 @@
+package com.cronox.shop.benchmark;
+
+import com.cronox.shop.dto.ApiError;
+import com.cronox.shop.exception.GlobalExceptionHandler;
+import com.cronox.shop.exception.ProductNotFoundException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.OffsetDateTime;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+/**
+ * Throughput of a 404 response from the point a product lookup fails to the serialized body, thrown from a call
+ * stack about as deep as a real Tomcat + Spring MVC request. Compares a stack-capturing exception rendered with a
+ * fresh {@code OffsetDateTime.now()} against the domain exception and {@link GlobalExceptionHandler}. Run with
+ * {@code mvn -Pbenchmark test -Dbenchmark=ErrorPathBenchmark}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class ErrorPathBenchmark {
+
+    @Param({"100"})
+    public int stackDepth;
+
+    private GlobalExceptionHandler handler;
+    private ObjectMapper objectMapper;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() {
+        handler = new GlobalExceptionHandler(new SimpleMeterRegistry());
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        request = new MockHttpServletRequest("GET", "/api/products/42");
+    }
+
+    @Benchmark
+    public byte[] stackTraceNotFound() throws JsonProcessingException {
+        try {
+            throwAtDepth(stackDepth, true);
+            throw new IllegalStateException();
+        } catch (LegacyNotFoundException ex) {
+            HttpStatus status = HttpStatus.NOT_FOUND;
+            ApiError body = new ApiError(OffsetDateTime.now(), status.value(), status.getReasonPhrase(),
+                    ex.getMessage(), request.getRequestURI());
+            return objectMapper.writeValueAsBytes(ResponseEntity.status(status).body(body).getBody());
+        }
+    }
+
+    @Benchmark
+    public byte[] stacklessNotFound() throws JsonProcessingException {
+        try {
+            throwAtDepth(stackDepth, false);
+            throw new IllegalStateException();
+        } catch (ProductNotFoundException ex) {
+            return objectMapper.writeValueAsBytes(handler.handleNotFound(ex, request).getBody());
+        }
+    }
+
+    private static void throwAtDepth(int depth, boolean legacy) {
+        if (depth > 0) {
+            throwAtDepth(depth - 1, legacy);
+            return;
+        }
+        throw legacy ? new LegacyNotFoundException(42L) : new ProductNotFoundException(42L);
+    }
+
+    /**
+     * {@code ProductNotFoundException} as it was: eager message, full stack trace.
+     */
+    static class LegacyNotFoundException extends RuntimeException {
+
+        LegacyNotFoundException(Long id) {
+            super("Product %d not found".formatted(id));
+        }
+    }
+}
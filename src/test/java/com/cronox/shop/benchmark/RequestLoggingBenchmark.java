@@ -0,0 +1,143 @@
+package com.cronox.shop.benchmark;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.FileAppender;
+import com.cronox.shop.config.AccessLogWriter;
+import com.cronox.shop.config.RequestResponseLoggingFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Per-request overhead of the access log filter with a real file appender, comparing the previous synchronous
+ * {@code log.info} per request against the sampled, ring-buffer backed filter. Run with
+ * {@code mvn -Pbenchmark test -Dbenchmark=RequestLoggingBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class RequestLoggingBenchmark {
+
+    private static final FilterChain OK_CHAIN = (request, response) -> ((HttpServletResponse) response).setStatus(200);
+
+    @Param({"0.1", "1.0"})
+    public double sampleRate;
+
+    private Path logFile;
+    private FileAppender<ILoggingEvent> appender;
+    private AccessLogWriter writer;
+    private OncePerRequestFilter synchronousFilter;
+    private OncePerRequestFilter sampledFilter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        logFile = Files.createTempFile("access-log-benchmark", ".log");
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d %-5level [%thread] %logger{36} - %msg%n");
+        encoder.start();
+        appender = new FileAppender<>();
+        appender.setContext(context);
+        appender.setFile(logFile.toString());
+        appender.setEncoder(encoder);
+        appender.start();
+
+        context.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(ch.qos.logback.classic.Level.WARN);
+        ch.qos.logback.classic.Logger accessLogger = context.getLogger(RequestResponseLoggingFilter.class);
+        accessLogger.detachAndStopAllAppenders();
+        accessLogger.setAdditive(false);
+        accessLogger.setLevel(ch.qos.logback.classic.Level.INFO);
+        accessLogger.addAppender(appender);
+
+        writer = new AccessLogWriter(new SimpleMeterRegistry(), 8192);
+        writer.start();
+        synchronousFilter = new SynchronousLoggingFilter();
+        sampledFilter = new RequestResponseLoggingFilter(writer, true, sampleRate, Duration.ofMillis(500), 500);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        writer.stop();
+        appender.stop();
+        Files.deleteIfExists(logFile);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse synchronousPerRequest(RequestState state) throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        synchronousFilter.doFilter(state.request, response, OK_CHAIN);
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse sampledRingBuffer(RequestState state) throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        sampledFilter.doFilter(state.request, response, OK_CHAIN);
+        return response;
+    }
+
+    @State(Scope.Thread)
+    public static class RequestState {
+
+        MockHttpServletRequest request;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            request = new MockHttpServletRequest("GET", "/api/products/42");
+        }
+    }
+
+    /**
+     * The filter as it was before sampling: one synchronous appender call per request.
+     */
+    static class SynchronousLoggingFilter extends OncePerRequestFilter {
+
+        private static final Logger log = LoggerFactory.getLogger(RequestResponseLoggingFilter.class);
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                FilterChain filterChain) throws ServletException, IOException {
+            long start = System.currentTimeMillis();
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                long duration = System.currentTimeMillis() - start;
+                log.info("{} {} -> {} ({} ms)", request.getMethod(), request.getRequestURI(),
+                        response.getStatus(), duration);
+            }
+        }
+    }
+}
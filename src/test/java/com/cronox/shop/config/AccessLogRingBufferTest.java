@@ -0,0 +1,71 @@
+package com.cronox.shop.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class AccessLogRingBufferTest {
+
+    @Test
+    void shouldRoundCapacityUpToPowerOfTwo() {
+        assertThat(new AccessLogRingBuffer<String>(1000).capacity()).isEqualTo(1024);
+        assertThat(new AccessLogRingBuffer<String>(1024).capacity()).isEqualTo(1024);
+    }
+
+    @Test
+    void shouldRejectOffersWhenFullAndAcceptAgainAfterPoll() {
+        AccessLogRingBuffer<Integer> buffer = new AccessLogRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+        }
+
+        assertThat(buffer.offer(4)).isFalse();
+        assertThat(buffer.poll()).isZero();
+        assertThat(buffer.offer(4)).isTrue();
+        assertThat(buffer.poll()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldDeliverEveryRecordFromConcurrentProducersExactlyOnce() throws Exception {
+        int producers = 4;
+        int perProducer = 20_000;
+        AccessLogRingBuffer<Integer> buffer = new AccessLogRingBuffer<>(256);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            for (int p = 0; p < producers; p++) {
+                int base = p * perProducer;
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perProducer; i++) {
+                        while (!buffer.offer(base + i)) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+
+            Set<Integer> seen = new HashSet<>();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (seen.size() < producers * perProducer && System.nanoTime() < deadline) {
+                Integer value = buffer.poll();
+                if (value != null) {
+                    assertThat(seen.add(value)).isTrue();
+                }
+            }
+
+            assertThat(seen).hasSize(producers * perProducer);
+            assertThat(buffer.poll()).isNull();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
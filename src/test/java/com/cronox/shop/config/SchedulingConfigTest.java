@@ -0,0 +1,36 @@
+package com.cronox.shop.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.cronox.shop.service.IdempotencyService;
+import com.cronox.shop.service.ProductHistoryService;
+import com.cronox.shop.service.ProductService;
+import com.cronox.shop.service.ReadinessService;
+import com.cronox.shop.service.StockService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+
+class SchedulingConfigTest {
+
+    private final LazyInitializationExcludeFilter filter =
+            SchedulingConfig.scheduledBeansLazyInitializationExcludeFilter();
+
+    @Test
+    void shouldKeepBeansWithScheduledTasksEager() {
+        assertThat(isExcluded(ReadinessService.class)).isTrue();
+        assertThat(isExcluded(ProductHistoryService.class)).isTrue();
+        assertThat(isExcluded(IdempotencyService.class)).isTrue();
+        assertThat(isExcluded(StockService.class)).isTrue();
+    }
+
+    @Test
+    void shouldLeaveOtherBeansLazy() {
+        assertThat(isExcluded(ProductService.class)).isFalse();
+        assertThat(isExcluded(RequestResponseLoggingFilter.class)).isFalse();
+    }
+
+    private boolean isExcluded(Class<?> beanType) {
+        return filter.isExcluded(beanType.getSimpleName(), new RootBeanDefinition(beanType), beanType);
+    }
+}
@@ -0,0 +1,65 @@
+package com.cronox.shop.exception;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.cronox.shop.dto.ApiError;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+class GlobalExceptionHandlerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler(meterRegistry,
+            Clock.fixed(Instant.parse("2024-01-01T10:15:30.123Z"), ZoneOffset.UTC));
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/42");
+
+    @Test
+    void shouldNotCaptureStackTraceForDomainExceptions() {
+        ProductNotFoundException ex = new ProductNotFoundException(42L);
+
+        assertThat(ex.getStackTrace()).isEmpty();
+        assertThat(ex.getMessage()).isEqualTo("Product 42 not found");
+        assertThat(new InsufficientStockException(7L).getMessage()).isEqualTo("Product 7 would have negative stock");
+    }
+
+    @Test
+    void shouldRenderApiErrorAndCountByExceptionType() {
+        ResponseEntity<ApiError> first = handler.handleNotFound(new ProductNotFoundException(42L), request);
+        ResponseEntity<ApiError> second = handler.handleNotFound(new ProductNotFoundException("SKU-1"), request);
+        handler.handleUnprocessable(new InsufficientStockException(42L), request);
+
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        ApiError body = first.getBody();
+        assertThat(body.getStatus()).isEqualTo(404);
+        assertThat(body.getError()).isEqualTo("Not Found");
+        assertThat(body.getMessage()).isEqualTo("Product 42 not found");
+        assertThat(body.getPath()).isEqualTo("/api/products/42");
+        assertThat(body.getTimestamp().toInstant()).isEqualTo(Instant.parse("2024-01-01T10:15:30.123Z"));
+        assertThat(second.getBody().getTimestamp()).isSameAs(body.getTimestamp());
+
+        assertThat(meterRegistry.get("shop.errors").tag("exception", "ProductNotFoundException")
+                .tag("status", "404").counter().count()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("shop.errors").tag("exception", "InsufficientStockException")
+                .tag("status", "422").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldCountSameExceptionTypeUnderEachStatus() {
+        IllegalStateException ex = new IllegalStateException("boom");
+        handler.toApiError(ex, HttpStatus.BAD_REQUEST, "bad", "/api/v2/products");
+        handler.handleGeneric(ex, new ServletWebRequest(request));
+        handler.toApiError(ex, HttpStatus.BAD_REQUEST, "bad", "/api/v2/products");
+
+        assertThat(meterRegistry.get("shop.errors").tag("exception", "IllegalStateException")
+                .tag("status", "400").counter().count()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("shop.errors").tag("exception", "IllegalStateException")
+                .tag("status", "500").counter().count()).isEqualTo(1.0);
+    }
+}
@@ -0,0 +1,201 @@
+package com.cronox.shop.loadtest;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+/**
+ * Loads a synthetic catalog into a migrated database with {@code COPY}. Names are built from brand, adjective and
+ * noun vocabularies drawn with Zipf skew, so a few words match a large share of the catalog the way real search
+ * terms do; prices are log-normal and about a quarter of the products are out of stock. Each product gets one to
+ * four categories, also skewed. SKUs are {@code GEN-00000001} upwards in id order, and {@link WorkloadRunner} treats
+ * the lowest ids as the hottest.
+ * <p>
+ * Settings: {@code CATALOG_PRODUCTS} (1000000), {@code CATALOG_CATEGORIES} (10000), {@code CATALOG_SKEW} (1.1),
+ * {@code CATALOG_SEED} (42) and {@code CATALOG_RESET} ({@code true} truncates products and categories first; only
+ * use it on a local stand-in). Prints one JSON line with row counts and load time.
+ */
+public final class CatalogGenerator {
+
+    static final List<String> NOUNS = List.of("lamp", "chair", "table", "shirt", "jacket", "boots", "sneakers",
+            "backpack", "mug", "kettle", "blender", "pan", "knife", "pillow", "blanket", "towel", "watch", "headphones",
+            "speaker", "keyboard", "mouse", "monitor", "charger", "cable", "notebook", "pen", "bottle", "tent",
+            "bicycle", "helmet");
+
+    private static final List<String> ADJECTIVES = List.of("classic", "compact", "premium", "eco", "smart", "vintage",
+            "wireless", "portable", "deluxe", "slim", "heavy-duty", "soft", "modern", "rustic", "sport", "kids",
+            "travel", "pro", "mini", "ultra");
+
+    private static final int BRANDS = 500;
+    private static final int COPY_CHUNK_BYTES = 1 << 20;
+
+    private CatalogGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int products = LoadTestEnvironment.integer("CATALOG_PRODUCTS", 1_000_000);
+        int categories = LoadTestEnvironment.integer("CATALOG_CATEGORIES", 10_000);
+        double skew = LoadTestEnvironment.decimal("CATALOG_SKEW", 1.1);
+        long seed = Long.parseLong(LoadTestEnvironment.string("CATALOG_SEED", "42"));
+        boolean reset = Boolean.parseBoolean(LoadTestEnvironment.string("CATALOG_RESET", "false"));
+
+        long started = System.nanoTime();
+        try (Connection connection = LoadTestEnvironment.connect()) {
+            connection.setAutoCommit(false);
+            if (reset) {
+                execute(connection, "TRUNCATE products, categories RESTART IDENTITY CASCADE");
+            }
+            long firstCategoryId = queryLong(connection, "SELECT COALESCE(MAX(id), 0) + 1 FROM categories");
+            long firstProductId = queryLong(connection, "SELECT COALESCE(MAX(id), 0) + 1 FROM products");
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+
+            copyCategories(copyManager, firstCategoryId, categories);
+            copyProducts(copyManager, firstProductId, products, skew, new SplittableRandom(seed));
+            long links = copyProductCategories(copyManager, firstProductId, products, firstCategoryId, categories,
+                    skew, new SplittableRandom(seed + 1));
+
+            execute(connection, "SELECT setval(pg_get_serial_sequence('categories', 'id'), MAX(id)) FROM categories");
+            execute(connection, "SELECT setval(pg_get_serial_sequence('products', 'id'), MAX(id)) FROM products");
+            connection.commit();
+            connection.setAutoCommit(true);
+            execute(connection, "ANALYZE categories");
+            execute(connection, "ANALYZE products");
+            execute(connection, "ANALYZE product_categories");
+
+            double seconds = (System.nanoTime() - started) / 1e9;
+            System.out.printf("{\"products\":%d,\"categories\":%d,\"product_categories\":%d,\"first_product_id\":%d,"
+                            + "\"seconds\":%.1f,\"rows_per_second\":%.0f}%n", products, categories, links,
+                    firstProductId, seconds, (products + categories + links) / seconds);
+        }
+    }
+
+    private static void copyCategories(CopyManager copyManager, long firstId, int count) throws SQLException {
+        try (CopyWriter writer = new CopyWriter(copyManager,
+                "COPY categories (id, slug, name) FROM STDIN (FORMAT csv)")) {
+            for (int i = 0; i < count; i++) {
+                long id = firstId + i;
+                writer.row(id + ",gen-" + id + ",Category " + id);
+            }
+        }
+    }
+
+    private static void copyProducts(CopyManager copyManager, long firstId, int count, double skew,
+            SplittableRandom random) throws SQLException {
+        ZipfSampler brands = new ZipfSampler(BRANDS, skew);
+        ZipfSampler adjectives = new ZipfSampler(ADJECTIVES.size(), skew);
+        ZipfSampler nouns = new ZipfSampler(NOUNS.size(), skew);
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        String sql = "COPY products (id, sku, name, description, price_cents, quantity, updated_at) "
+                + "FROM STDIN (FORMAT csv)";
+        try (CopyWriter writer = new CopyWriter(copyManager, sql)) {
+            StringBuilder row = new StringBuilder(160);
+            for (int i = 0; i < count; i++) {
+                long id = firstId + i;
+                int priceCents = (int) Math.min(5_000_000, Math.exp(7.5 + random.nextGaussian()));
+                int quantity = random.nextInt(4) == 0 ? 0 : (int) Math.min(500, -20 * Math.log(random.nextDouble()));
+                row.setLength(0);
+                row.append(id).append(',')
+                        .append(sku(id)).append(',')
+                        .append("Brand").append(brands.sample(random) + 1).append(' ')
+                        .append(ADJECTIVES.get(adjectives.sample(random))).append(' ')
+                        .append(NOUNS.get(nouns.sample(random))).append(' ')
+                        .append(random.nextInt(1000)).append(",,")
+                        .append(priceCents).append(',')
+                        .append(quantity).append(',')
+                        .append(now.minusMinutes(random.nextInt(60 * 24 * 365)));
+                writer.row(row);
+            }
+        }
+    }
+
+    private static long copyProductCategories(CopyManager copyManager, long firstProductId, int products,
+            long firstCategoryId, int categories, double skew, SplittableRandom random) throws SQLException {
+        ZipfSampler categorySampler = new ZipfSampler(categories, skew);
+        long links = 0;
+        try (CopyWriter writer = new CopyWriter(copyManager,
+                "COPY product_categories (category_id, product_id) FROM STDIN (FORMAT csv)")) {
+            long[] picked = new long[4];
+            for (int i = 0; i < products; i++) {
+                long productId = firstProductId + i;
+                int count = 1 + random.nextInt(4);
+                int distinct = 0;
+                for (int n = 0; n < count; n++) {
+                    long categoryId = firstCategoryId + categorySampler.sample(random);
+                    if (!contains(picked, distinct, categoryId)) {
+                        picked[distinct++] = categoryId;
+                        writer.row(categoryId + "," + productId);
+                    }
+                }
+                links += distinct;
+            }
+        }
+        return links;
+    }
+
+    static String sku(long id) {
+        return "GEN-%08d".formatted(id);
+    }
+
+    private static boolean contains(long[] values, int length, long value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static long queryLong(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    /**
+     * Buffers CSV rows and hands them to the server in 1 MiB chunks of a single {@code COPY ... FROM STDIN}.
+     */
+    private static final class CopyWriter implements AutoCloseable {
+
+        private final CopyIn copyIn;
+        private final StringBuilder buffer = new StringBuilder(COPY_CHUNK_BYTES + 256);
+
+        CopyWriter(CopyManager copyManager, String sql) throws SQLException {
+            this.copyIn = copyManager.copyIn(sql);
+        }
+
+        void row(CharSequence row) throws SQLException {
+            buffer.append(row).append('\n');
+            if (buffer.length() >= COPY_CHUNK_BYTES) {
+                flush();
+            }
+        }
+
+        private void flush() throws SQLException {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+
+        @Override
+        public void close() throws SQLException {
+            flush();
+            copyIn.endCopy();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.cronox.shop.loadtest;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Settings shared by the load-test tools, read from the environment with the same database variables as the
+ * {@code dev} profile ({@code DB_HOST}, {@code DB_PORT}, {@code DB_NAME}, {@code DB_USER}, {@code DB_PASSWORD}) or a
+ * full {@code DB_URL}.
+ */
+final class LoadTestEnvironment {
+
+    private LoadTestEnvironment() {
+    }
+
+    static String string(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+
+    static int integer(String name, int defaultValue) {
+        return Integer.parseInt(string(name, String.valueOf(defaultValue)));
+    }
+
+    static double decimal(String name, double defaultValue) {
+        return Double.parseDouble(string(name, String.valueOf(defaultValue)));
+    }
+
+    static Duration duration(String name, Duration defaultValue) {
+        return Duration.parse(string(name, defaultValue.toString()));
+    }
+
+    static Connection connect() throws SQLException {
+        String url = string("DB_URL", "jdbc:postgresql://%s:%s/%s".formatted(string("DB_HOST", "localhost"),
+                string("DB_PORT", "5432"), string("DB_NAME", "shopdb")));
+        return DriverManager.getConnection(url, string("DB_USER", "app"), string("DB_PASSWORD", "app"));
+    }
+}
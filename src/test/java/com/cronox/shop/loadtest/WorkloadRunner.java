@@ -0,0 +1,403 @@
+package com.cronox.shop.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+/**
+ * Drives a running instance with a production-like request mix against a catalog loaded by
+ * {@link CatalogGenerator}, and writes throughput, p50/p99 latency and database statement counts as JSON.
+ * <p>
+ * Every operation in the mix first runs alone, so its statement count per request is attributable, and then the
+ * whole mix runs together. Keys are drawn with Zipf skew over product ids, so the lowest ids are the hot SKUs.
+ * Statement counts come from {@code pg_stat_statements} when the extension is loaded (the docker-compose database
+ * preloads it); transaction counts from {@code pg_stat_database} are always reported.
+ * <p>
+ * Settings: {@code BASE_URL} (http://localhost:8080), {@code WORKLOAD_MIX}
+ * (list=30,search=20,get=35,adjust=10,update=5), {@code WORKLOAD_THREADS} (32), {@code WORKLOAD_DURATION} (PT30S)
+ * and {@code WORKLOAD_WARMUP} (PT10S) per phase, {@code WORKLOAD_SKEW} (1.1), {@code WORKLOAD_OUTPUT}
+ * (target/workload-&lt;timestamp&gt;.json) plus the database variables of {@link LoadTestEnvironment}.
+ */
+public final class WorkloadRunner {
+
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final String baseUrl;
+    private final long[] productIds;
+    private final ZipfSampler keySampler;
+    private final ZipfSampler nounSampler;
+
+    private WorkloadRunner(String baseUrl, long[] productIds, double skew) {
+        this.baseUrl = baseUrl;
+        this.productIds = productIds;
+        this.keySampler = new ZipfSampler(productIds.length, skew);
+        this.nounSampler = new ZipfSampler(CatalogGenerator.NOUNS.size(), skew);
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = LoadTestEnvironment.string("BASE_URL", "http://localhost:8080");
+        Map<Operation, Integer> mix = parseMix(
+                LoadTestEnvironment.string("WORKLOAD_MIX", "list=30,search=20,get=35,adjust=10,update=5"));
+        int threads = LoadTestEnvironment.integer("WORKLOAD_THREADS", 32);
+        Duration duration = LoadTestEnvironment.duration("WORKLOAD_DURATION", Duration.ofSeconds(30));
+        Duration warmup = LoadTestEnvironment.duration("WORKLOAD_WARMUP", Duration.ofSeconds(10));
+        double skew = LoadTestEnvironment.decimal("WORKLOAD_SKEW", 1.1);
+        OffsetDateTime startedAt = OffsetDateTime.now(ZoneOffset.UTC);
+        Path output = Path.of(LoadTestEnvironment.string("WORKLOAD_OUTPUT", "target/workload-%s.json".formatted(
+                startedAt.format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")))));
+
+        try (Connection connection = LoadTestEnvironment.connect()) {
+            boolean statementsAvailable = enableStatementStatistics(connection);
+            WorkloadRunner runner = new WorkloadRunner(baseUrl, loadProductIds(connection), skew);
+
+            List<Map<Operation, Integer>> phases = new ArrayList<>();
+            for (Operation operation : mix.keySet()) {
+                phases.add(Map.of(operation, 1));
+            }
+            phases.add(mix);
+
+            ObjectNode report = JSON.createObjectNode();
+            report.put("startedAt", startedAt.toString());
+            report.put("baseUrl", baseUrl);
+            report.put("threads", threads);
+            report.put("durationSeconds", duration.toSeconds());
+            report.put("products", runner.productIds.length);
+            report.put("skew", skew);
+            report.put("pgStatStatements", statementsAvailable);
+            ObjectNode scenarios = report.putObject("scenarios");
+            for (Map<Operation, Integer> phase : phases) {
+                String name = phase.size() == 1 ? phase.keySet().iterator().next().label : "mix";
+                runner.run(phase, threads, warmup, null);
+                DatabaseCounters before = DatabaseCounters.read(connection, statementsAvailable);
+                Map<Operation, long[]> latencies = new EnumMap<>(Operation.class);
+                PhaseTotals totals = runner.run(phase, threads, duration, latencies);
+                DatabaseCounters after = DatabaseCounters.read(connection, statementsAvailable);
+                ObjectNode result = scenarioResult(totals, latencies, duration, before, after);
+                scenarios.set(name, result);
+                System.out.println(JSON.writer().withoutFeatures(SerializationFeature.INDENT_OUTPUT)
+                        .writeValueAsString(JSON.createObjectNode().put("scenario", name).setAll(result)));
+            }
+            Files.createDirectories(output.toAbsolutePath().getParent());
+            JSON.writeValue(output.toFile(), report);
+            System.out.println("Report written to " + output);
+        }
+    }
+
+    private PhaseTotals run(Map<Operation, Integer> phase, int threads, Duration duration,
+            Map<Operation, long[]> latencies) throws Exception {
+        Operation[] weighted = phase.entrySet().stream()
+                .flatMap(entry -> Stream.generate(entry::getKey).limit(entry.getValue()))
+                .toArray(Operation[]::new);
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Worker>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> new Worker(weighted).runUntil(deadline)));
+            }
+            PhaseTotals totals = new PhaseTotals();
+            Map<Operation, List<long[]>> samples = new EnumMap<>(Operation.class);
+            for (Future<Worker> future : futures) {
+                Worker worker = future.get();
+                totals.add(worker);
+                worker.latencies.forEach((operation, recorder) ->
+                        samples.computeIfAbsent(operation, key -> new ArrayList<>()).add(recorder.toArray()));
+            }
+            if (latencies != null) {
+                samples.forEach((operation, parts) -> latencies.put(operation, merge(parts)));
+            }
+            return totals;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private final class Worker {
+
+        private final Operation[] weighted;
+        private final SplittableRandom random = new SplittableRandom(ThreadLocalRandom.current().nextLong());
+        private final Map<Operation, LongRecorder> latencies = new EnumMap<>(Operation.class);
+        private long requests;
+        private long clientErrors;
+        private long serverErrors;
+
+        Worker(Operation[] weighted) {
+            this.weighted = weighted;
+        }
+
+        Worker runUntil(long deadline) {
+            while (System.nanoTime() < deadline) {
+                Operation operation = weighted[random.nextInt(weighted.length)];
+                long start = System.nanoTime();
+                int status;
+                try {
+                    status = execute(operation);
+                } catch (Exception ex) {
+                    status = 599;
+                }
+                latencies.computeIfAbsent(operation, key -> new LongRecorder())
+                        .add((System.nanoTime() - start) / 1000);
+                requests++;
+                if (status >= 500) {
+                    serverErrors++;
+                } else if (status >= 400) {
+                    clientErrors++;
+                }
+            }
+            return this;
+        }
+
+        private int execute(Operation operation) throws Exception {
+            long id = productIds[keySampler.sample(random)];
+            return switch (operation) {
+                case LIST -> get("/api/products?page=%d&size=20%s".formatted(random.nextInt(50),
+                        random.nextBoolean() ? "&inStock=true" : "")).statusCode();
+                case SEARCH -> get("/api/products?size=20&name="
+                        + CatalogGenerator.NOUNS.get(nounSampler.sample(random))).statusCode();
+                case GET -> get("/api/products/by-sku/" + CatalogGenerator.sku(id)).statusCode();
+                case ADJUST -> send(HttpRequest.newBuilder(uri("/api/products/%d/adjust-quantity".formatted(id)))
+                        .method("PATCH", json("{\"delta\":%d}".formatted(random.nextBoolean() ? 1 : -1))))
+                        .statusCode();
+                case UPDATE -> update(id);
+            };
+        }
+
+        /**
+         * Read-modify-write of a whole product, the way the catalog import upserts changed rows.
+         */
+        private int update(long id) throws Exception {
+            HttpResponse<String> current = get("/api/products/" + id);
+            if (current.statusCode() != 200) {
+                return current.statusCode();
+            }
+            ObjectNode product = (ObjectNode) JSON.readTree(current.body());
+            int price = product.get("priceCents").asInt();
+            ObjectNode body = JSON.createObjectNode()
+                    .put("sku", product.get("sku").asText())
+                    .put("name", product.get("name").asText())
+                    .put("priceCents", Math.max(0, price + (random.nextBoolean() ? 10 : -10)))
+                    .put("quantity", product.get("quantity").asInt());
+            JsonNode description = product.get("description");
+            if (description != null && !description.isNull()) {
+                body.put("description", description.asText());
+            }
+            return send(HttpRequest.newBuilder(uri("/api/products/" + id))
+                    .PUT(json(JSON.writeValueAsString(body)))).statusCode();
+        }
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return send(HttpRequest.newBuilder(uri(path)).GET());
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return httpClient.send(request.timeout(Duration.ofSeconds(30)).header("Content-Type", "application/json")
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private static HttpRequest.BodyPublisher json(String body) {
+        return HttpRequest.BodyPublishers.ofString(body);
+    }
+
+    private static ObjectNode scenarioResult(PhaseTotals totals, Map<Operation, long[]> latencies,
+            Duration duration, DatabaseCounters before, DatabaseCounters after) {
+        ObjectNode result = JSON.createObjectNode();
+        result.put("requests", totals.requests);
+        result.put("clientErrors", totals.clientErrors);
+        result.put("serverErrors", totals.serverErrors);
+        result.put("throughputPerSecond", round(totals.requests / (double) duration.toSeconds()));
+        long[] all = merge(new ArrayList<>(latencies.values()));
+        result.put("p50Ms", percentileMillis(all, 0.50));
+        result.put("p99Ms", percentileMillis(all, 0.99));
+        long transactions = after.transactions - before.transactions;
+        result.put("dbTransactions", transactions);
+        result.put("dbTransactionsPerRequest", round(transactions / (double) Math.max(1, totals.requests)));
+        if (before.statements >= 0 && after.statements >= 0) {
+            long statements = after.statements - before.statements;
+            result.put("dbStatements", statements);
+            result.put("dbStatementsPerRequest", round(statements / (double) Math.max(1, totals.requests)));
+        }
+        if (latencies.size() > 1) {
+            ObjectNode operations = result.putObject("operations");
+            latencies.forEach((operation, samples) -> operations.putObject(operation.label)
+                    .put("requests", samples.length)
+                    .put("p50Ms", percentileMillis(samples, 0.50))
+                    .put("p99Ms", percentileMillis(samples, 0.99)));
+        }
+        return result;
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] entry = part.trim().split("=");
+            int weight = Integer.parseInt(entry[1].trim());
+            if (weight > 0) {
+                weights.put(Operation.fromLabel(entry[0].trim()), weight);
+            }
+        }
+        return weights;
+    }
+
+    private static long[] loadProductIds(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery(
+                        "SELECT id FROM products WHERE sku LIKE 'GEN-%' ORDER BY id")) {
+            LongRecorder ids = new LongRecorder();
+            while (resultSet.next()) {
+                ids.add(resultSet.getLong(1));
+            }
+            if (ids.size == 0) {
+                throw new IllegalStateException("No generated products found; run CatalogGenerator first");
+            }
+            return ids.toArray();
+        }
+    }
+
+    private static boolean enableStatementStatistics(Connection connection) {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE EXTENSION IF NOT EXISTS pg_stat_statements");
+            statement.executeQuery("SELECT 1 FROM pg_stat_statements LIMIT 1").close();
+            return true;
+        } catch (SQLException ex) {
+            System.err.println("pg_stat_statements unavailable, reporting transactions only: " + ex.getMessage());
+            return false;
+        }
+    }
+
+    private static long[] merge(List<long[]> parts) {
+        long[] merged = new long[parts.stream().mapToInt(part -> part.length).sum()];
+        int offset = 0;
+        for (long[] part : parts) {
+            System.arraycopy(part, 0, merged, offset, part.length);
+            offset += part.length;
+        }
+        Arrays.sort(merged);
+        return merged;
+    }
+
+    private static double percentileMillis(long[] sortedMicros, double percentile) {
+        if (sortedMicros.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sortedMicros.length) - 1;
+        return round(sortedMicros[Math.max(0, index)] / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    enum Operation {
+        LIST("list"), SEARCH("search"), GET("get"), ADJUST("adjust"), UPDATE("update");
+
+        private final String label;
+
+        Operation(String label) {
+            this.label = label;
+        }
+
+        static Operation fromLabel(String label) {
+            for (Operation operation : values()) {
+                if (operation.label.equals(label)) {
+                    return operation;
+                }
+            }
+            throw new IllegalArgumentException("Unknown operation '%s' in WORKLOAD_MIX".formatted(label));
+        }
+    }
+
+    private static final class PhaseTotals {
+
+        private long requests;
+        private long clientErrors;
+        private long serverErrors;
+
+        void add(Worker worker) {
+            requests += worker.requests;
+            clientErrors += worker.clientErrors;
+            serverErrors += worker.serverErrors;
+        }
+    }
+
+    private record DatabaseCounters(long transactions, long statements) {
+
+        /**
+         * Reads cumulative counters for the current database. Statistics are flushed by backends about once a
+         * second, so this waits briefly first; the runner's own queries add a constant handful per phase.
+         */
+        static DatabaseCounters read(Connection connection, boolean statementsAvailable) throws Exception {
+            Thread.sleep(1500);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SELECT pg_stat_clear_snapshot()");
+                long transactions = queryLong(statement, "SELECT xact_commit + xact_rollback FROM pg_stat_database "
+                        + "WHERE datname = current_database()");
+                long statements = statementsAvailable
+                        ? queryLong(statement, "SELECT COALESCE(SUM(calls), 0) FROM pg_stat_statements "
+                                + "WHERE dbid = (SELECT oid FROM pg_database WHERE datname = current_database()) "
+                                + "AND query NOT ILIKE '%pg_stat%'")
+                        : -1;
+                return new DatabaseCounters(transactions, statements);
+            }
+        }
+
+        private static long queryLong(Statement statement, String sql) throws SQLException {
+            try (ResultSet resultSet = statement.executeQuery(sql)) {
+                resultSet.next();
+                return resultSet.getLong(1);
+            }
+        }
+    }
+
+    private static final class LongRecorder {
+
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.cronox.shop.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.cronox.shop.dto.QuantityAdjustmentRequest;
+import com.cronox.shop.exception.IdempotencyKeyInProgressException;
+import com.cronox.shop.exception.IdempotencyKeyMismatchException;
+import com.cronox.shop.exception.InsufficientStockException;
+import com.cronox.shop.repository.IdempotencyKeyRepository;
+import com.cronox.shop.repository.IdempotencyRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class IdempotencyServiceTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private IdempotencyKeyRepository repository;
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(IdempotencyKeyRepository.class);
+        when(repository.tryClaim(any(), any(), any(), any())).thenReturn(true);
+        when(repository.lockClaim(any(), any())).thenReturn(true);
+        idempotencyService = new IdempotencyService(repository, objectMapper, mock(PlatformTransactionManager.class),
+                Duration.ofHours(1), Duration.ofSeconds(30), Duration.ofSeconds(5), 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldExecuteConcurrentRetriesOfTheSameKeyOnce() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        QuantityAdjustmentRequest request = adjustment(-1);
+
+        List<Future<ResponseEntity<String>>> responses = new ArrayList<>();
+        responses.add(executor.submit(() -> idempotencyService.execute("key-1", "PATCH /1", request, String.class,
+                () -> {
+                    executions.incrementAndGet();
+                    started.countDown();
+                    await(release);
+                    return ResponseEntity.ok("stock-4");
+                })));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 0; i < 5; i++) {
+            responses.add(executor.submit(() -> idempotencyService.execute("key-1", "PATCH /1", request,
+                    String.class, () -> {
+                        executions.incrementAndGet();
+                        return ResponseEntity.ok("applied-twice");
+                    })));
+        }
+        Thread.sleep(100);
+        release.countDown();
+
+        for (Future<ResponseEntity<String>> response : responses) {
+            assertThat(response.get(5, TimeUnit.SECONDS).getBody()).isEqualTo("stock-4");
+        }
+        assertThat(executions).hasValue(1);
+        verify(repository, times(1)).tryClaim(any(), any(), any(), any());
+        verify(repository, times(1)).complete(any(), anyInt(), anyString());
+    }
+
+    @Test
+    void shouldReplayCompletedResponseFromMemory() {
+        QuantityAdjustmentRequest request = adjustment(2);
+        idempotencyService.execute("key-2", "PATCH /1", request, String.class, () -> ResponseEntity.ok("stock-7"));
+
+        ResponseEntity<String> replayed = idempotencyService.execute("key-2", "PATCH /1", request, String.class,
+                () -> ResponseEntity.ok("applied-twice"));
+
+        assertThat(replayed.getBody()).isEqualTo("stock-7");
+        assertThat(replayed.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+        verify(repository, times(1)).tryClaim(any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldRejectKeyReusedWithDifferentRequest() {
+        idempotencyService.execute("key-3", "PATCH /1", adjustment(1), String.class, () -> ResponseEntity.ok("ok"));
+
+        assertThatThrownBy(() -> idempotencyService.execute("key-3", "PATCH /1", adjustment(5), String.class,
+                () -> ResponseEntity.ok("ok")))
+                .isInstanceOf(IdempotencyKeyMismatchException.class);
+    }
+
+    @Test
+    void shouldReleaseKeyWhenFirstCallFails() {
+        assertThatThrownBy(() -> idempotencyService.execute("key-4", "PATCH /1", adjustment(-9), String.class,
+                () -> {
+                    throw new InsufficientStockException(1L);
+                }))
+                .isInstanceOf(InsufficientStockException.class);
+        verify(repository).release(any(), any());
+
+        ResponseEntity<String> retried = idempotencyService.execute("key-4", "PATCH /1", adjustment(-9),
+                String.class, () -> ResponseEntity.ok("stock-0"));
+        assertThat(retried.getBody()).isEqualTo("stock-0");
+    }
+
+    @Test
+    void shouldRejectDifferentRequestWhileFirstCallIsStillRunning() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<ResponseEntity<String>> first = executor.submit(() -> idempotencyService.execute("key-5", "PATCH /1",
+                adjustment(1), String.class, () -> {
+                    started.countDown();
+                    await(release);
+                    return ResponseEntity.ok("stock-1");
+                }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> idempotencyService.execute("key-5", "PATCH /1", adjustment(2), String.class,
+                () -> ResponseEntity.ok("ok")))
+                .isInstanceOf(IdempotencyKeyMismatchException.class);
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS).getBody()).isEqualTo("stock-1");
+    }
+
+    @Test
+    void shouldRejectDifferentRequestOnKeyInProgressOnAnotherPod() throws Exception {
+        when(repository.tryClaim(any(), any(), any(), any())).thenReturn(false);
+        when(repository.find(any()))
+                .thenReturn(Optional.of(inProgress(adjustment(1), OffsetDateTime.now().plusSeconds(30))));
+
+        assertThatThrownBy(() -> idempotencyService.execute("key-6", "PATCH /1", adjustment(2), String.class,
+                () -> ResponseEntity.ok("ok")))
+                .isInstanceOf(IdempotencyKeyMismatchException.class);
+        verify(repository, times(1)).find(any());
+        verify(repository, never()).tryClaimStale(any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldPollForResponseStoredByAnotherPod() throws Exception {
+        QuantityAdjustmentRequest request = adjustment(-1);
+        when(repository.tryClaim(any(), any(), any(), any())).thenReturn(false);
+        when(repository.find(any())).thenReturn(
+                Optional.of(inProgress(request, OffsetDateTime.now().plusSeconds(30))),
+                Optional.of(inProgress(request, OffsetDateTime.now().plusSeconds(30))),
+                Optional.of(completed(request, "stock-4")));
+        AtomicInteger executions = new AtomicInteger();
+
+        ResponseEntity<String> replayed = idempotencyService.execute("key-7", "PATCH /1", request, String.class,
+                () -> {
+                    executions.incrementAndGet();
+                    return ResponseEntity.ok("applied-twice");
+                });
+
+        assertThat(replayed.getBody()).isEqualTo("stock-4");
+        assertThat(replayed.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(executions).hasValue(0);
+        verify(repository, times(3)).find(any());
+        verify(repository, never()).tryClaimStale(any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldTakeOverStaleClaimOfDeadPod() throws Exception {
+        QuantityAdjustmentRequest request = adjustment(3);
+        when(repository.tryClaim(any(), any(), any(), any())).thenReturn(false);
+        when(repository.find(any())).thenReturn(Optional.of(inProgress(request, OffsetDateTime.now().minusSeconds(1))));
+        when(repository.tryClaimStale(any(), any(), any(), any())).thenReturn(true);
+
+        ResponseEntity<String> response = idempotencyService.execute("key-8", "PATCH /1", request, String.class,
+                () -> ResponseEntity.ok("stock-3"));
+
+        assertThat(response.getBody()).isEqualTo("stock-3");
+        assertThat(response.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER)).isFalse();
+        verify(repository).lockClaim(any(), any());
+        verify(repository).complete(any(), anyInt(), anyString());
+    }
+
+    @Test
+    void shouldNotReexecuteStaleClaimWhoseOwnerIsStillRunning() throws Exception {
+        QuantityAdjustmentRequest request = adjustment(3);
+        when(repository.tryClaim(any(), any(), any(), any())).thenReturn(false);
+        when(repository.find(any())).thenReturn(
+                Optional.of(inProgress(request, OffsetDateTime.now().minusSeconds(1))),
+                Optional.of(completed(request, "stock-3")));
+        when(repository.tryClaimStale(any(), any(), any(), any())).thenReturn(false);
+        AtomicInteger executions = new AtomicInteger();
+
+        ResponseEntity<String> replayed = idempotencyService.execute("key-9", "PATCH /1", request, String.class,
+                () -> {
+                    executions.incrementAndGet();
+                    return ResponseEntity.ok("applied-twice");
+                });
+
+        assertThat(replayed.getBody()).isEqualTo("stock-3");
+        assertThat(executions).hasValue(0);
+    }
+
+    @Test
+    void shouldNotExecuteWhenClaimWasTakenOverBeforeItWasLocked() {
+        when(repository.lockClaim(any(), any())).thenReturn(false);
+        AtomicInteger executions = new AtomicInteger();
+
+        assertThatThrownBy(() -> idempotencyService.execute("key-10", "PATCH /1", adjustment(1), String.class,
+                () -> {
+                    executions.incrementAndGet();
+                    return ResponseEntity.ok("ok");
+                }))
+                .isInstanceOf(IdempotencyKeyInProgressException.class);
+        assertThat(executions).hasValue(0);
+        verify(repository, never()).release(any(), any());
+    }
+
+    private IdempotencyRecord inProgress(Object request, OffsetDateTime lockedUntil) throws Exception {
+        return new IdempotencyRecord(requestHash(request), null, null, lockedUntil,
+                OffsetDateTime.now().plusHours(1));
+    }
+
+    private IdempotencyRecord completed(Object request, String body) throws Exception {
+        return new IdempotencyRecord(requestHash(request), 200, objectMapper.writeValueAsString(body),
+                OffsetDateTime.now().plusSeconds(30), OffsetDateTime.now().plusHours(1));
+    }
+
+    private byte[] requestHash(Object request) throws Exception {
+        return MessageDigest.getInstance("SHA-256")
+                .digest(objectMapper.writeValueAsString(request).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static QuantityAdjustmentRequest adjustment(int delta) {
+        QuantityAdjustmentRequest request = new QuantityAdjustmentRequest();
+        request.setDelta(delta);
+        return request;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.cronox.shop.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.cronox.shop.entity.Product;
+import com.cronox.shop.repository.ProductHistoryEntry;
+import com.cronox.shop.repository.ProductHistoryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+class ProductHistoryServiceTest {
+
+    private ProductHistoryRepository repository;
+    private SimpleMeterRegistry meterRegistry;
+    private ProductHistoryService historyService;
+    private final List<List<ProductHistoryEntry>> written = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ProductHistoryRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        historyService = new ProductHistoryService(repository, meterRegistry, 100, 10, 3, 24, 2, Duration.ofDays(31));
+    }
+
+    @Test
+    void shouldRetryAFailedBatchOnTheNextFlush() {
+        doThrow(new DataAccessResourceFailureException("no partition for recorded_at"))
+                .doAnswer(invocation -> written.add(List.copyOf(invocation.getArgument(0))))
+                .when(repository).insertBatch(anyList());
+        historyService.record(product(1L));
+        historyService.record(product(2L));
+
+        historyService.flush();
+        historyService.record(product(3L));
+        historyService.flush();
+
+        assertThat(written).hasSize(2);
+        assertThat(written.get(0)).extracting(ProductHistoryEntry::productId).containsExactly(1L, 2L);
+        assertThat(written.get(1)).extracting(ProductHistoryEntry::productId).containsExactly(3L);
+        assertThat(meterRegistry.counter("shop.products.history.written").count()).isEqualTo(3);
+        assertThat(meterRegistry.counter("shop.products.history.dropped").count()).isZero();
+    }
+
+    @Test
+    void shouldDropABatchOnlyAfterEveryAttemptFailed() {
+        doThrow(new DataAccessResourceFailureException("database down")).when(repository).insertBatch(anyList());
+        historyService.record(product(1L));
+
+        historyService.flush();
+        historyService.flush();
+        assertThat(meterRegistry.counter("shop.products.history.dropped").count()).isZero();
+        historyService.flush();
+
+        verify(repository, times(3)).insertBatch(anyList());
+        assertThat(meterRegistry.counter("shop.products.history.dropped").count()).isEqualTo(1);
+
+        doNothing().when(repository).insertBatch(anyList());
+        historyService.flush();
+        verify(repository, times(3)).insertBatch(anyList());
+    }
+
+    private static Product product(Long id) {
+        Product product = new Product();
+        product.setId(id);
+        product.setSku("SKU-" + id);
+        product.setPriceCents(1000);
+        product.setQuantity(1);
+        return product;
+    }
+}
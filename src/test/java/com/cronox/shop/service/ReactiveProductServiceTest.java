@@ -0,0 +1,77 @@
+package com.cronox.shop.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.cronox.shop.dto.ProductFilter;
+import com.cronox.shop.dto.ProductResponse;
+import com.cronox.shop.exception.TooManyStreamsException;
+import com.cronox.shop.repository.ReactiveProductRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+class ReactiveProductServiceTest {
+
+    private static final int MAX_STREAMS = 4;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(MAX_STREAMS + 1);
+    private ReactiveProductService reactiveProductService;
+
+    @BeforeEach
+    void setUp() {
+        ReactiveProductRepository repository = mock(ReactiveProductRepository.class);
+        when(repository.stream(any())).thenAnswer(invocation -> Flux.<ProductResponse>never());
+        reactiveProductService = new ReactiveProductService(repository, MAX_STREAMS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldRefuseStreamsBeyondTheLimitWhenOpenedConcurrently() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Flux<ProductResponse>>> requests = new ArrayList<>();
+        for (int i = 0; i <= MAX_STREAMS; i++) {
+            requests.add(executor.submit(() -> {
+                start.await();
+                return reactiveProductService.streamProducts(new ProductFilter());
+            }));
+        }
+        start.countDown();
+
+        List<Flux<ProductResponse>> opened = new ArrayList<>();
+        int refused = 0;
+        for (Future<Flux<ProductResponse>> request : requests) {
+            try {
+                opened.add(request.get(5, TimeUnit.SECONDS));
+            } catch (ExecutionException ex) {
+                assertThat(ex.getCause()).isInstanceOf(TooManyStreamsException.class);
+                refused++;
+            }
+        }
+        assertThat(opened).hasSize(MAX_STREAMS);
+        assertThat(refused).isEqualTo(1);
+
+        List<Disposable> subscriptions = new ArrayList<>();
+        opened.forEach(stream -> subscriptions.add(stream.subscribe()));
+        subscriptions.get(0).dispose();
+        Disposable reopened = reactiveProductService.streamProducts(new ProductFilter()).subscribe();
+        subscriptions.forEach(Disposable::dispose);
+        reopened.dispose();
+    }
+}
@@ -0,0 +1,197 @@
+package com.cronox.shop.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.cronox.shop.dto.ReadinessResponse;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.LivenessState;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class ReadinessServiceTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+    private JdbcTemplate probeTemplate;
+    private HikariPoolMXBean pool;
+    private ApplicationAvailability availability;
+    private ReadinessService readinessService;
+
+    @BeforeEach
+    void setUp() {
+        probeTemplate = mock(JdbcTemplate.class);
+        pool = mock(HikariPoolMXBean.class);
+        availability = mock(ApplicationAvailability.class);
+        when(availability.getReadinessState()).thenReturn(ReadinessState.ACCEPTING_TRAFFIC);
+        when(availability.getLivenessState()).thenReturn(LivenessState.CORRECT);
+        when(pool.getActiveConnections()).thenReturn(3);
+        when(pool.getIdleConnections()).thenReturn(7);
+        when(pool.getTotalConnections()).thenReturn(10);
+        readinessService = new ReadinessService(probeTemplate, () -> pool, availability, clock,
+                Duration.ofSeconds(15), 10, Runnable::run);
+    }
+
+    @Test
+    void shouldBeReadyWhenDatabaseIsUpAndPoolHasHeadroom() {
+        readinessService.probeDatabase();
+
+        ReadinessResponse response = readinessService.readiness();
+
+        assertThat(response.getStatus()).isEqualTo("UP");
+        assertThat(response.getDatabase()).isEqualTo("UP");
+        assertThat(response.getPoolTotal()).isEqualTo(10);
+        assertThat(response.getReasons()).isEmpty();
+    }
+
+    @Test
+    void shouldNotTouchTheDatabaseWhenAnsweringReadiness() {
+        readinessService.readiness();
+        readinessService.readiness();
+
+        verifyNoInteractions(probeTemplate);
+    }
+
+    @Test
+    void shouldNotBeReadyBeforeFirstProbe() {
+        ReadinessResponse response = readinessService.readiness();
+
+        assertThat(response.getStatus()).isEqualTo("OUT_OF_SERVICE");
+        assertThat(response.getDatabase()).isEqualTo("UNKNOWN");
+    }
+
+    @Test
+    void shouldNotBeReadyWhenDatabaseIsUnreachable() {
+        doThrow(new DataAccessResourceFailureException("connection refused")).when(probeTemplate)
+                .execute(anyString());
+        readinessService.probeDatabase();
+
+        ReadinessResponse response = readinessService.readiness();
+
+        assertThat(response.getStatus()).isEqualTo("OUT_OF_SERVICE");
+        assertThat(response.getDatabase()).isEqualTo("DOWN");
+        assertThat(response.getReasons()).containsExactly("database is unreachable");
+    }
+
+    @Test
+    void shouldNotBeReadyWhenProbeResultIsStale() {
+        readinessService.probeDatabase();
+        clock.advance(Duration.ofSeconds(16));
+
+        ReadinessResponse response = readinessService.readiness();
+
+        assertThat(response.getStatus()).isEqualTo("OUT_OF_SERVICE");
+        assertThat(response.getDatabase()).isEqualTo("STALE");
+    }
+
+    @Test
+    void shouldNotBeReadyWhenPoolIsSaturatedAndSkipProbe() {
+        readinessService.probeDatabase();
+        when(pool.getThreadsAwaitingConnection()).thenReturn(25);
+
+        readinessService.probeDatabase();
+        ReadinessResponse response = readinessService.readiness();
+
+        assertThat(response.getStatus()).isEqualTo("OUT_OF_SERVICE");
+        assertThat(response.getPoolPending()).isEqualTo(25);
+        assertThat(response.getReasons()).containsExactly("connection pool saturated: 25 threads waiting");
+        verify(probeTemplate).execute("SELECT 1");
+    }
+
+    @Test
+    void shouldNotBeReadyWhileApplicationRefusesTraffic() {
+        readinessService.probeDatabase();
+        when(availability.getReadinessState()).thenReturn(ReadinessState.REFUSING_TRAFFIC);
+
+        ReadinessResponse response = readinessService.readiness();
+
+        assertThat(response.getStatus()).isEqualTo("OUT_OF_SERVICE");
+        assertThat(response.getReasons()).containsExactly("application is not accepting traffic");
+    }
+
+    @Test
+    void shouldReportLivenessIndependentlyOfDatabase() {
+        doThrow(new DataAccessResourceFailureException("connection refused")).when(probeTemplate)
+                .execute(anyString());
+        readinessService.probeDatabase();
+
+        assertThat(readinessService.isLive()).isTrue();
+        when(availability.getLivenessState()).thenReturn(LivenessState.BROKEN);
+        assertThat(readinessService.isLive()).isFalse();
+    }
+
+    @Test
+    void shouldNotWaitForAProbeStuckOnTheDatabase() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            finished.countDown();
+            return null;
+        }).when(probeTemplate).execute(anyString());
+        ExecutorService probeExecutor = Executors.newSingleThreadExecutor();
+        ReadinessService service = new ReadinessService(probeTemplate, () -> pool, availability, clock,
+                Duration.ofSeconds(15), 10, probeExecutor);
+        try {
+            service.probeDatabase();
+            service.probeDatabase();
+            assertThat(service.readiness().getDatabase()).isEqualTo("UNKNOWN");
+
+            release.countDown();
+            assertThat(finished.await(5, TimeUnit.SECONDS)).isTrue();
+            probeExecutor.shutdown();
+            assertThat(probeExecutor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(service.readiness().getDatabase()).isEqualTo("UP");
+            verify(probeTemplate, times(1)).execute("SELECT 1");
+        } finally {
+            probeExecutor.shutdownNow();
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
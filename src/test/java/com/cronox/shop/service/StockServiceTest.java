@@ -0,0 +1,106 @@
+package com.cronox.shop.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.groups.Tuple.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.cronox.shop.dto.StockAllocation;
+import com.cronox.shop.dto.StockAllocationResponse;
+import com.cronox.shop.exception.InsufficientStockException;
+import com.cronox.shop.exception.ProductNotFoundException;
+import com.cronox.shop.exception.WarehouseNotFoundException;
+import com.cronox.shop.repository.ProductHistoryEntry;
+import com.cronox.shop.repository.ProductRepository;
+import com.cronox.shop.repository.StockLocation;
+import com.cronox.shop.repository.StockRepository;
+import com.cronox.shop.repository.WarehouseRepository;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class StockServiceTest {
+
+    private StockRepository stockRepository;
+    private ProductRepository productRepository;
+    private WarehouseRepository warehouseRepository;
+    private ProductHistoryService productHistoryService;
+    private StockService stockService;
+
+    @BeforeEach
+    void setUp() {
+        stockRepository = mock(StockRepository.class);
+        productRepository = mock(ProductRepository.class);
+        warehouseRepository = mock(WarehouseRepository.class);
+        productHistoryService = mock(ProductHistoryService.class);
+        stockService = new StockService(stockRepository, productRepository, warehouseRepository,
+                productHistoryService, 100);
+    }
+
+    @Test
+    void shouldAllocateFromPreferredWarehousesWithTheMostStockFirst() {
+        StockLocation north = new StockLocation(1, "north", 1, 10, 8);
+        StockLocation south = new StockLocation(2, "south", 0, 5, 0);
+        StockLocation east = new StockLocation(3, "east", 1, 20, 0);
+        when(stockRepository.lockLocations(7L)).thenReturn(List.of(north, south, east));
+
+        StockAllocationResponse response = stockService.allocate(7L, 12);
+
+        assertThat(response.getAllocations()).extracting(StockAllocation::getWarehouse, StockAllocation::getQuantity)
+                .containsExactly(tuple("south", 5), tuple("east", 7));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<StockLocation>> locations = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<int[]> quantities = ArgumentCaptor.forClass(int[].class);
+        verify(stockRepository).allocate(eq(7L), locations.capture(), quantities.capture());
+        assertThat(locations.getValue()).containsExactly(south, east);
+        assertThat(quantities.getValue()).startsWith(5, 7);
+    }
+
+    @Test
+    void shouldRejectAllocationsThatExceedUnreservedStock() {
+        when(stockRepository.lockLocations(7L)).thenReturn(List.of(
+                new StockLocation(1, "north", 0, 10, 8), new StockLocation(2, "south", 0, 5, 0)));
+
+        assertThatThrownBy(() -> stockService.allocate(7L, 8))
+                .isInstanceOf(InsufficientStockException.class)
+                .hasMessage("Product 7 has 7 units available, 8 requested");
+        verify(stockRepository, never()).allocate(anyLong(), anyList(), any());
+    }
+
+    @Test
+    void shouldReportWhyALocationChangeWasRejected() {
+        when(stockRepository.adjust(anyLong(), anyString(), anyInt())).thenReturn(Optional.empty());
+        when(productRepository.existsById(1L)).thenReturn(false);
+        when(productRepository.existsById(2L)).thenReturn(true);
+        when(warehouseRepository.existsByCode("north")).thenReturn(true);
+
+        assertThatThrownBy(() -> stockService.adjustQuantity(1L, "north", -1))
+                .isInstanceOf(ProductNotFoundException.class);
+        assertThatThrownBy(() -> stockService.adjustQuantity(2L, "west", -1))
+                .isInstanceOf(WarehouseNotFoundException.class);
+        assertThatThrownBy(() -> stockService.adjustQuantity(2L, "north", -1))
+                .isInstanceOf(InsufficientStockException.class);
+    }
+
+    @Test
+    void shouldRecordHistoryForProductsWhoseQuantityTheFoldChanged() {
+        ProductHistoryEntry lamp = new ProductHistoryEntry(7L, "SKU-7", 3000, 4, OffsetDateTime.now());
+        when(stockRepository.foldDeltas(100)).thenReturn(List.of(lamp));
+
+        stockService.foldAvailability();
+
+        verify(productHistoryService).record(lamp);
+    }
+}